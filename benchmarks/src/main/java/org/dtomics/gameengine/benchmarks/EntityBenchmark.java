@@ -0,0 +1,116 @@
+package org.dtomics.gameengine.benchmarks;
+
+import org.dtomics.gameengine.specification.components.Component;
+import org.dtomics.gameengine.specification.components.Entity;
+import org.dtomics.gameengine.specification.components.World;
+import org.dtomics.gameengine.specification.window.Window;
+import org.dtomics.gameengine.specification.window.HeadlessWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class EntityBenchmark {
+
+    private static final Supplier<Component>[] FILLERS = fillers(
+            F1::new, F2::new, F3::new, F4::new, F5::new, F6::new, F7::new,
+            F8::new, F9::new, F10::new, F11::new, F12::new, F13::new, F14::new
+    );
+
+    @Param({"4", "16"})
+    private int components;
+
+    private Window window;
+    private Entity entity;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        this.window = new HeadlessWindow();
+        this.entity = new World().spawn("benchmark");
+        this.entity.addComponent(new Filler());
+        for (int i = 0; i < components - 2; i++) {
+            this.entity.addComponent(FILLERS[i].get());
+        }
+        this.entity.addComponent(new Target());
+        this.entity.init();
+    }
+
+    @Benchmark
+    public Filler getFirstComponent() {
+        return entity.getComponent(Filler.class);
+    }
+
+    @Benchmark
+    public Target getLastComponent() {
+        return entity.getComponent(Target.class);
+    }
+
+    @Benchmark
+    public void addAndRemoveComponent() {
+        entity.addComponent(new Transient());
+        entity.removeComponent(Transient.class);
+    }
+
+    @Benchmark
+    public void update(Blackhole blackhole) {
+        entity.update(window);
+        blackhole.consume(entity);
+    }
+
+    public static class Filler implements Component {
+        private long ticks;
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void update(Window window) {
+            ticks++;
+        }
+    }
+
+    public static class Target extends Filler {
+    }
+
+    @SafeVarargs
+    private static Supplier<Component>[] fillers(Supplier<Component>... fillers) {
+        return fillers;
+    }
+
+    public static class F1 extends Filler { }
+    public static class F2 extends Filler { }
+    public static class F3 extends Filler { }
+    public static class F4 extends Filler { }
+    public static class F5 extends Filler { }
+    public static class F6 extends Filler { }
+    public static class F7 extends Filler { }
+    public static class F8 extends Filler { }
+    public static class F9 extends Filler { }
+    public static class F10 extends Filler { }
+    public static class F11 extends Filler { }
+    public static class F12 extends Filler { }
+    public static class F13 extends Filler { }
+    public static class F14 extends Filler { }
+
+    public static class Transient extends Filler {
+    }
+}
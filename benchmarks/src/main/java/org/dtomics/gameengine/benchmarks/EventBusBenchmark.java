@@ -0,0 +1,67 @@
+package org.dtomics.gameengine.benchmarks;
+
+import org.dtomics.gameengine.specification.events.EventBus;
+import org.dtomics.gameengine.specification.events.EventType;
+import org.dtomics.gameengine.specification.events.InputEventQueue;
+import org.dtomics.gameengine.specification.events.InputEvents;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of dispatching one tick of input dominated by cursor moves, as a high polling rate mouse
+ * produces, to a few handlers per event type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class EventBusBenchmark {
+    @Param({"1000"})
+    private int events;
+
+    @Param({"4"})
+    private int handlers;
+
+    private EventBus bus;
+    private InputEventQueue queue;
+    private long[] tick;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        this.bus = new EventBus();
+        this.queue = new InputEventQueue(events);
+        for (int i = 0; i < handlers; i++) {
+            bus.subscribe(EventType.CURSOR, (x, y) -> blackhole.consume(x + y));
+            bus.subscribe(EventType.KEY, (key, scancode, action, mods) -> blackhole.consume(key));
+        }
+        this.tick = new long[events];
+        for (int i = 0; i < events; i++) {
+            tick[i] = i % 100 == 99
+                    ? InputEvents.key(65, 30, 1, 0)
+                    : InputEvents.cursor(i % 1280, i % 720);
+        }
+    }
+
+    @Benchmark
+    public int dispatch() {
+        for (final long event : tick) {
+            queue.offer(event);
+        }
+        return bus.dispatch(queue);
+    }
+}
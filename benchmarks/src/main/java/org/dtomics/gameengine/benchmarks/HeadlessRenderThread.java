@@ -0,0 +1,21 @@
+package org.dtomics.gameengine.benchmarks;
+
+import org.dtomics.gameengine.specification.render.RenderConfig;
+import org.dtomics.gameengine.specification.render.RenderThread;
+import org.dtomics.gameengine.specification.window.Window;
+
+class HeadlessRenderThread extends RenderThread {
+
+    HeadlessRenderThread(Window window, RenderConfig config) {
+        super(window, config);
+        this.setDaemon(true);
+    }
+
+    @Override
+    protected void init(Window window) {
+    }
+
+    @Override
+    protected void render(Window window) {
+    }
+}
@@ -0,0 +1,76 @@
+package org.dtomics.gameengine.benchmarks;
+
+import org.dtomics.gameengine.specification.render.RenderQueue;
+import org.dtomics.gameengine.specification.render.Renderable;
+import org.dtomics.gameengine.specification.render.SortKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keying, sorting and walking one frame of renderables, compared with leaving them in
+ * submission order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class RenderQueueBenchmark {
+    private static final Renderable NO_OP = window -> {
+    };
+
+    @Param({"10000"})
+    private int renderables;
+
+    private RenderQueue queue;
+    private long[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.queue = new RenderQueue();
+        this.keys = new long[renderables];
+        final var random = new Random(42);
+        for (int i = 0; i < renderables; i++) {
+            final int shader = random.nextInt(8);
+            final int material = random.nextInt(64);
+            final int depth = random.nextInt(SortKey.MAX_DEPTH);
+            keys[i] = random.nextInt(10) == 0
+                    ? SortKey.translucent(0, shader, material, depth)
+                    : SortKey.opaque(0, shader, material, depth);
+        }
+    }
+
+    @Benchmark
+    public int sorted() {
+        for (int i = 0; i < renderables; i++) {
+            queue.add(NO_OP, keys[i]);
+        }
+        final int size = queue.size();
+        queue.execute(null);
+        return size;
+    }
+
+    @Benchmark
+    public int unsorted() {
+        for (int i = 0; i < renderables; i++) {
+            queue.add(NO_OP);
+        }
+        final int size = queue.size();
+        queue.execute(null);
+        return size;
+    }
+}
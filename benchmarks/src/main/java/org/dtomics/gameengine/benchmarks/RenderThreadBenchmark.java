@@ -0,0 +1,89 @@
+package org.dtomics.gameengine.benchmarks;
+
+import org.dtomics.gameengine.specification.concurrent.MpscRingBuffer.BackpressurePolicy;
+import org.dtomics.gameengine.specification.render.RenderConfig;
+import org.dtomics.gameengine.specification.render.RenderThread;
+import org.dtomics.gameengine.specification.render.Renderable;
+import org.dtomics.gameengine.specification.window.HeadlessWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Submit throughput of contended producers while the render thread keeps flushing. With {@code BLOCK} producers are
+ * throttled by the flush, so the score is the sustained submit plus flush throughput; with {@code DROP} it is the
+ * raw cost of the submit path. The render thread runs uncapped, so {@code recordFrame} measures how many complete
+ * frames per second the engine can record and render without a gpu.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class RenderThreadBenchmark {
+    private static final Renderable NO_OP = window -> {
+    };
+
+    @Param({"BLOCK", "DROP"})
+    private BackpressurePolicy policy;
+
+    @Param({"1024"})
+    private int frameSize;
+
+    private RenderThread renderThread;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.renderThread = new HeadlessRenderThread(
+                new HeadlessWindow(),
+                RenderConfig.builder()
+                        .renderableCapacity(1 << 16)
+                        .backpressurePolicy(policy)
+                        .build()
+        );
+        this.renderThread.setUncapped();
+        this.renderThread.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.renderThread.close();
+        this.renderThread.cleanUp();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean submitUncontended() {
+        return renderThread.submit(NO_OP);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean submitContended() {
+        return renderThread.submit(NO_OP);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void recordFrame() {
+        final var frame = renderThread.beginFrame();
+        for (int i = 0; i < frameSize; i++) {
+            frame.add(NO_OP);
+        }
+        renderThread.publishFrame(frame);
+    }
+}
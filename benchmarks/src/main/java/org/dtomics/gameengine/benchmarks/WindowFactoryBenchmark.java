@@ -0,0 +1,43 @@
+package org.dtomics.gameengine.benchmarks;
+
+import org.dtomics.gameengine.specification.window.HeadlessWindow;
+import org.dtomics.gameengine.specification.window.WindowConfig;
+import org.dtomics.gameengine.specification.window.WindowFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class WindowFactoryBenchmark {
+
+    private WindowConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.config = WindowConfig.builder()
+                .width(1280)
+                .height(720)
+                .build();
+    }
+
+    @Benchmark
+    public Optional<HeadlessWindow> create() {
+        return WindowFactory.create(HeadlessWindow.class, config);
+    }
+}
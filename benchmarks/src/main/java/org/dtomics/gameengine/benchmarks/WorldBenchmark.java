@@ -0,0 +1,70 @@
+package org.dtomics.gameengine.benchmarks;
+
+import org.dtomics.gameengine.benchmarks.EntityBenchmark.F1;
+import org.dtomics.gameengine.benchmarks.EntityBenchmark.F2;
+import org.dtomics.gameengine.benchmarks.EntityBenchmark.Filler;
+import org.dtomics.gameengine.specification.components.Query;
+import org.dtomics.gameengine.specification.components.World;
+import org.dtomics.gameengine.specification.window.Window;
+import org.dtomics.gameengine.specification.window.HeadlessWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class WorldBenchmark {
+
+    @Param({"50000"})
+    private int entities;
+
+    private Window window;
+    private World world;
+    private Query query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.window = new HeadlessWindow();
+        this.world = new World();
+        for (int i = 0; i < entities; i++) {
+            final var entity = world.spawn("entity-" + i);
+            entity.addComponent(new Filler());
+            entity.addComponent(new F1());
+            if (i % 2 == 0) {
+                entity.addComponent(new F2());
+            }
+        }
+        this.query = world.query(Filler.class, F2.class);
+    }
+
+    @Benchmark
+    public void update() {
+        world.update(window);
+    }
+
+    @Benchmark
+    public void iterateQuery(Blackhole blackhole) {
+        query.forEachArchetype(archetype -> {
+            final var column = archetype.column(archetype.columnOf(F2.class));
+            for (int row = 0; row < archetype.size(); row++) {
+                blackhole.consume(column[row]);
+            }
+        });
+    }
+}
@@ -1,13 +1,22 @@
 package org.dtomics.gameengine.demo;
 
-import org.dtomics.gameengine.demo.utils.BufferUtils;
+import org.dtomics.gameengine.opengl.primitives.MeshBuilder;
+import org.dtomics.gameengine.opengl.primitives.ProgramBinaryCache;
+import org.dtomics.gameengine.opengl.primitives.Shader;
+import org.dtomics.gameengine.opengl.primitives.VAO;
+import org.dtomics.gameengine.opengl.primitives.VertexBuffer;
+import org.dtomics.gameengine.opengl.primitives.VertexLayout;
 import org.dtomics.gameengine.opengl.render.OpenglRenderThread;
 import org.dtomics.gameengine.opengl.window.GlfwWindow;
-import org.dtomics.gameengine.specification.window.Configuration;
+import org.dtomics.gameengine.specification.events.EventType;
+import org.dtomics.gameengine.specification.render.TaskPriority;
+import org.dtomics.gameengine.specification.window.WindowConfig;
 import org.dtomics.gameengine.specification.window.Window;
-import org.lwjgl.glfw.GLFWFramebufferSizeCallbackI;
-import org.lwjgl.glfw.GLFWKeyCallbackI;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
 
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -16,13 +25,13 @@ import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL11C.*;
 import static org.lwjgl.opengl.GL15C.*;
 import static org.lwjgl.opengl.GL20C.*;
-import static org.lwjgl.opengl.GL30C.glBindVertexArray;
-import static org.lwjgl.opengl.GL30C.glGenVertexArrays;
-import static org.lwjgl.opengl.GL41C.glGetProgramBinary;
-import static org.lwjgl.opengl.GL41C.glProgramBinary;
 
 public class Application implements Runnable {
+    private static final Path PROGRAM_CACHE = Path.of(System.getProperty("user.home"), ".cache", "dtomics-game-engine", "programs");
+
     private final Window window;
+    private final long startTime = System.nanoTime();
+    private boolean firstFrame = true;
 
     private final ExecutorService loggingExecutor;
 
@@ -38,7 +47,7 @@ public class Application implements Runnable {
 
         log("initializing application window");
         this.window.config(
-                Configuration.builder()
+                WindowConfig.builder()
                         .width(1280)
                         .height(720)
                         .fullscreen(false)
@@ -48,72 +57,70 @@ public class Application implements Runnable {
         log("window created");
 
 
-        this.window.on(GLFWKeyCallbackI.class, (GLFWKeyCallbackI) (w, key, scancode, action, mods) -> {
-            log("window key %s %s",
-                    action == GLFW_PRESS
-                            ? "press"
-                            : action == GLFW_RELEASE
-                            ? "release"
-                            : "repeat",
-                    glfwGetKeyName(key, scancode)
-            );
-            if (key == GLFW_KEY_ESCAPE && action == GLFW_PRESS) {
-                this.window.close();
-            }
-        });
-
-        this.window.on(GLFWFramebufferSizeCallbackI.class, (GLFWFramebufferSizeCallbackI) (pointer, width, height) -> {
-            log("window resize %dx%d", width, height);
-            glViewport(0, 0, width, height);
-            this.window.config(
-                    this.window.config()
-                            .setWidth(width)
-                            .setHeight(height)
-            );
-        });
+        this.window.on(EventType.KEY, this::onKey);
+        this.window.on(EventType.RESIZE, (width, height) -> log("window resize %dx%d", width, height));
+    }
+
+    /**
+     * Runs for every key event, so it must not allocate: only escape is logged, once, on the way out.
+     */
+    private void onKey(int key, int scancode, int action, int mods) {
+        if (key == GLFW_KEY_ESCAPE && action == GLFW_PRESS) {
+            log("escape pressed, closing window");
+            this.window.close();
+        }
     }
 
-    private int buffer;
-    private int vao;
-    private int program;
+    private static final int INSTANCES = 3;
+
+    private VertexBuffer vertices;
+    private VertexBuffer offsets;
+    private VAO vao;
+    private Shader program;
+    private String programCache;
     private void setUp(Window window) {
 
-        log("starting render thread");
-        log("using window in current thread");
-        window.useCurrent();
         log("setting up opengl settings");
 
 
         log("setting up buffers");
-        this.buffer = BufferUtils.floatBuffer(GL_ARRAY_BUFFER, new float[]{
-                -0.5f, -0.5f, 0.0f,
-                0.5f, -0.5f, 0.0f,
-                0.0f, 0.5f, 0.0f
-        }, GL_STATIC_DRAW);
-
-        this.vao = glGenVertexArrays();
-        glBindVertexArray(vao);
-        glBindBuffer(GL_ARRAY_BUFFER, buffer);
-        glVertexAttribPointer(0, 3, GL_FLOAT, false, 12, 0);
-        glEnableVertexAttribArray(0);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glBindVertexArray(0);
-
-//        glProgramBinary();
-//        glGetProgramBinary(program,)
+        this.vertices = new VertexBuffer(GL_ARRAY_BUFFER);
+        this.offsets = new VertexBuffer(GL_ARRAY_BUFFER);
+        this.vao = new VAO();
+        vao.setVertexBuffer(vertices);
+        vao.setInstanceBuffer(offsets);
+        final var layout = VertexLayout.builder().floats(0, 3).build();
+        try (final var triangle = new MeshBuilder(layout)) {
+            triangle.vertex().put(-0.5f, -0.5f, 0.0f).endVertex();
+            triangle.vertex().put(0.5f, -0.5f, 0.0f).endVertex();
+            triangle.vertex().put(0.0f, 0.5f, 0.0f).endVertex();
+            triangle.upload(vertices, null, GL_STATIC_DRAW);
+        }
+        try (final var stack = MemoryStack.stackPush()) {
+            vao.updateInstances(MemoryUtil.memByteBuffer(stack.floats(
+                    -0.5f, 0.0f,
+                    0.0f, 0.0f,
+                    0.5f, 0.0f
+            )), INSTANCES);
+        }
+        layout.apply(vao);
+        vao.instanceAttribute(1, 2, GL_FLOAT, false, 8, 0, 1);
+        vao.setCount(3);
 
         log("loading shaders");
-        this.program = createShaderProgram(
-                createShader(GL_VERTEX_SHADER, """
+        final var cache = new ProgramBinaryCache(PROGRAM_CACHE);
+        this.program = cache.load(Map.of(
+                GL_VERTEX_SHADER, """
                          #version 330 core
                          layout (location = 0) in vec3 aPos;
+                         layout (location = 1) in vec2 aOffset;
 
                          void main()
                          {
-                             gl_Position = vec4(aPos.x, aPos.y, aPos.z, 1.0);
+                             gl_Position = vec4(aPos.x * 0.4 + aOffset.x, aPos.y * 0.4 + aOffset.y, aPos.z, 1.0);
                          }
-                        """),
-                createShader(GL_FRAGMENT_SHADER, """
+                        """,
+                GL_FRAGMENT_SHADER, """
                         #version 330 core
 
                         out vec4 fragColor;
@@ -121,29 +128,42 @@ public class Application implements Runnable {
                         void main() {
                             fragColor=vec4(1.0f, 0.5f, 0.2f, 1.0f);
                         }
-                        """)
-        );
+                        """
+        ));
+        vao.setShader(program);
+        this.programCache = cache.getHits() > 0 ? "warm" : "cold";
+        log("shaders ready in %.2f ms (%s)", cache.getLoadNanos() / 1e6, programCache);
     }
 
     @Override
     public void run() {
-        glUseProgram(program);
+        if (program == null) {
+            return;
+        }
         glClear(GL_COLOR_BUFFER_BIT);
-        glBindVertexArray(vao);
-        glUseProgram(program);
-        glDrawArrays(GL_TRIANGLES, 0, 3);
-        glUseProgram(0);
-        glBindVertexArray(0);
+        vao.render(window);
+        if (firstFrame) {
+            firstFrame = false;
+            log("time to first frame %.2f ms (%s)", (System.nanoTime() - startTime) / 1e6, programCache);
+        }
     }
 
     public void start() {
         final var renderThread = new OpenglRenderThread(window);
         renderThread.setFrameCap(60);
         renderThread.start();
+        renderThread.submit(() -> {
+            setUp(window);
+            return null;
+        }, TaskPriority.URGENT);
+        final var frame = renderThread.beginFrame();
+        frame.add(w -> this.run());
+        renderThread.publishFrame(frame);
 
         log("starting main loop");
         while (!this.window.exitRequested()) {
-            this.window.pollEvents();
+            this.window.waitEvents(this.window.config().getInputLatency());
+            this.window.dispatchEvents();
         }
         log("exiting main loop");
         log("cleaning up threads");
@@ -165,30 +185,4 @@ public class Application implements Runnable {
         }
     }
 
-    private static int createShaderProgram(int... shaders) {
-        var program = glCreateProgram();
-        for (int i = shaders.length - 1; i >= 0; i--) {
-            glAttachShader(program, shaders[i]);
-        }
-        glLinkProgram(program);
-        for (int shader : shaders) {
-            glDeleteShader(shader);
-        }
-        if (glGetProgrami(program, GL_LINK_STATUS) == 0) {
-            throw new IllegalStateException("failed to link shader program", new RuntimeException(glGetProgramInfoLog(program)));
-        }
-        return program;
-    }
-
-    private static int createShader(int type, String source) {
-        var shader = glCreateShader(type);
-        glShaderSource(shader, source);
-        glCompileShader(shader);
-        if (glGetShaderi(shader, GL_COMPILE_STATUS) == 0) {
-            throw new IllegalStateException("failed to compile shader " + type
-                    , new RuntimeException(glGetShaderInfoLog(shader)));
-        }
-        return shader;
-    }
-
 }
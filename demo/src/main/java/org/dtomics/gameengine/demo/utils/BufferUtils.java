@@ -1,31 +1,47 @@
 package org.dtomics.gameengine.demo.utils;
 
-import static org.lwjgl.opengl.GL15C.glBindBuffer;
-import static org.lwjgl.opengl.GL15C.glBufferData;
-import static org.lwjgl.opengl.GL15C.glBufferSubData;
-import static org.lwjgl.opengl.GL15C.glGenBuffers;
+import org.dtomics.gameengine.opengl.primitives.NativeBufferPool;
 
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL45C.glCreateBuffers;
+import static org.lwjgl.opengl.GL45C.glNamedBufferData;
+
+/**
+ * Raw buffer helpers. Arrays are staged through {@link NativeBufferPool#shared()}, mesh data should
+ * be written off-heap with {@link org.dtomics.gameengine.opengl.primitives.MeshBuilder} to begin with.
+ */
 public class BufferUtils {
 
     public static int intBuffer(int type, int[] data, int usage) {
-        int buffer = createBuffer(type, data.length * Integer.BYTES, usage);
-        glBufferSubData(type, 0, data);
-        glBindBuffer(type, 0);
-        return buffer;
+        final var pool = NativeBufferPool.shared();
+        final var staging = pool.acquire(data.length * Integer.BYTES);
+        try {
+            staging.asIntBuffer().put(data);
+            return buffer(type, staging, usage);
+        } finally {
+            pool.release(staging);
+        }
     }
 
     public static int floatBuffer(int type, float[] data, int usage) {
-        int buffer = createBuffer(type, data.length * Float.BYTES, usage);
-        glBufferSubData(type, 0, data);
-        glBindBuffer(type, 0);
-        return buffer;
+        final var pool = NativeBufferPool.shared();
+        final var staging = pool.acquire(data.length * Float.BYTES);
+        try {
+            staging.asFloatBuffer().put(data);
+            return buffer(type, staging, usage);
+        } finally {
+            pool.release(staging);
+        }
     }
 
-
-    private static int createBuffer(int type, int size, int usage) {
-        int buffer = glGenBuffers();
-        glBindBuffer(type, buffer);
-        glBufferData(type, size, usage);
+    /**
+     * Creates a buffer holding the remaining bytes of {@code data}. The buffer is not bound, so creating an index
+     * buffer does not change the index buffer of the vertex array that happens to be bound.
+     */
+    public static int buffer(int type, ByteBuffer data, int usage) {
+        final int buffer = glCreateBuffers();
+        glNamedBufferData(buffer, data, usage);
         return buffer;
     }
 
@@ -0,0 +1,231 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11C.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11C.glBindTexture;
+import static org.lwjgl.opengl.GL13C.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13C.GL_TEXTURE_CUBE_MAP;
+import static org.lwjgl.opengl.GL13C.glActiveTexture;
+import static org.lwjgl.opengl.GL15C.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.glBindBuffer;
+import static org.lwjgl.opengl.GL20C.glUseProgram;
+import static org.lwjgl.opengl.GL21C.GL_PIXEL_UNPACK_BUFFER;
+import static org.lwjgl.opengl.GL30C.GL_TEXTURE_2D_ARRAY;
+import static org.lwjgl.opengl.GL30C.glBindBufferBase;
+import static org.lwjgl.opengl.GL30C.glBindVertexArray;
+import static org.lwjgl.opengl.GL31C.GL_COPY_READ_BUFFER;
+import static org.lwjgl.opengl.GL31C.GL_COPY_WRITE_BUFFER;
+import static org.lwjgl.opengl.GL31C.GL_UNIFORM_BUFFER;
+import static org.lwjgl.opengl.GL40C.GL_DRAW_INDIRECT_BUFFER;
+
+/**
+ * Mirror of the bindings of the gl context current on this thread. Every {@link Primitive} binds
+ * through it, so binding an object that is already bound costs no gl call. Unbinding to zero only
+ * happens with {@code -Dgameengine.gl.debug=true}, where it helps to catch draws relying on stale
+ * state, in release mode bindings are left in place for the next draw to reuse.
+ * <p>
+ * Code that changes bindings with raw gl calls has to call {@link #invalidate()} afterwards.
+ */
+public final class GlState {
+    public static final boolean DEBUG = Boolean.getBoolean("gameengine.gl.debug");
+
+    private static final int UNKNOWN = -1;
+    private static final int TEXTURE_UNITS = 32;
+    private static final int[] BUFFER_TARGETS = {
+            GL_ARRAY_BUFFER,
+            GL_ELEMENT_ARRAY_BUFFER,
+            GL_UNIFORM_BUFFER,
+            GL_DRAW_INDIRECT_BUFFER,
+            GL_PIXEL_UNPACK_BUFFER,
+            GL_COPY_READ_BUFFER,
+            GL_COPY_WRITE_BUFFER
+    };
+    private static final int[] TEXTURE_TARGETS = {
+            GL_TEXTURE_2D,
+            GL_TEXTURE_2D_ARRAY,
+            GL_TEXTURE_CUBE_MAP
+    };
+    private static final int ELEMENT_ARRAY_BUFFER_SLOT = 1;
+    private static final int UNIFORM_BINDINGS = 64;
+
+    private static final ThreadLocal<GlState> CURRENT = ThreadLocal.withInitial(GlState::new);
+
+    private int program;
+    private int vertexArray;
+    private int activeTexture;
+    private final int[] buffers = new int[BUFFER_TARGETS.length];
+    private final int[] textures = new int[TEXTURE_UNITS * TEXTURE_TARGETS.length];
+    private final int[] uniformBindings = new int[UNIFORM_BINDINGS];
+
+    private long issued;
+    private long avoided;
+    @Getter private volatile long frameIssued;
+    @Getter private volatile long frameAvoided;
+
+    private GlState() {
+        invalidate();
+    }
+
+    public static GlState current() {
+        return CURRENT.get();
+    }
+
+    public void useProgram(int program) {
+        if (this.program == program) {
+            avoided++;
+            return;
+        }
+        glUseProgram(program);
+        this.program = program;
+        issued++;
+    }
+
+    public void bindVertexArray(int vertexArray) {
+        if (this.vertexArray == vertexArray) {
+            avoided++;
+            return;
+        }
+        glBindVertexArray(vertexArray);
+        this.vertexArray = vertexArray;
+        // the element array binding belongs to the vertex array
+        this.buffers[ELEMENT_ARRAY_BUFFER_SLOT] = UNKNOWN;
+        issued++;
+    }
+
+    public void bindBuffer(int target, int buffer) {
+        final int slot = slotOf(BUFFER_TARGETS, target);
+        if (slot >= 0 && buffers[slot] == buffer) {
+            avoided++;
+            return;
+        }
+        glBindBuffer(target, buffer);
+        if (slot >= 0) {
+            buffers[slot] = buffer;
+        }
+        issued++;
+    }
+
+    /**
+     * Binds a buffer to an indexed binding point, which also makes it the generic binding of the target.
+     */
+    public void bindBufferBase(int target, int index, int buffer) {
+        final boolean tracked = target == GL_UNIFORM_BUFFER && index < UNIFORM_BINDINGS;
+        if (tracked && uniformBindings[index] == buffer) {
+            avoided++;
+            return;
+        }
+        glBindBufferBase(target, index, buffer);
+        if (tracked) {
+            uniformBindings[index] = buffer;
+        }
+        final int slot = slotOf(BUFFER_TARGETS, target);
+        if (slot >= 0) {
+            buffers[slot] = buffer;
+        }
+        issued++;
+    }
+
+    /**
+     * @param unit zero based texture unit, not {@code GL_TEXTURE0 + unit}
+     */
+    public void bindTexture(int unit, int target, int texture) {
+        final int targetSlot = slotOf(TEXTURE_TARGETS, target);
+        final int slot = unit < TEXTURE_UNITS && targetSlot >= 0 ? unit * TEXTURE_TARGETS.length + targetSlot : -1;
+        if (slot >= 0 && textures[slot] == texture) {
+            avoided++;
+            return;
+        }
+        if (activeTexture != unit) {
+            glActiveTexture(GL_TEXTURE0 + unit);
+            activeTexture = unit;
+            issued++;
+        }
+        glBindTexture(target, texture);
+        if (slot >= 0) {
+            textures[slot] = texture;
+        }
+        issued++;
+    }
+
+    /**
+     * Unbind helpers for {@link Primitive#unbind()}, they only reach gl in debug mode.
+     */
+    public void unbindProgram() {
+        if (DEBUG) {
+            useProgram(0);
+        }
+    }
+
+    public void unbindVertexArray() {
+        if (DEBUG) {
+            bindVertexArray(0);
+        }
+    }
+
+    public void unbindBuffer(int target) {
+        if (DEBUG) {
+            bindBuffer(target, 0);
+        }
+    }
+
+    /**
+     * Records that the element array buffer of a vertex array was changed through direct state access.
+     */
+    public void elementBufferChanged(int vertexArray, int buffer) {
+        if (this.vertexArray == vertexArray) {
+            this.buffers[ELEMENT_ARRAY_BUFFER_SLOT] = buffer;
+        }
+    }
+
+    /**
+     * Forgets a deleted object so a new object that gets the same name is bound again.
+     */
+    public void deleted(int name) {
+        if (program == name) program = UNKNOWN;
+        if (vertexArray == name) vertexArray = UNKNOWN;
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] == name) buffers[i] = UNKNOWN;
+        }
+        for (int i = 0; i < textures.length; i++) {
+            if (textures[i] == name) textures[i] = UNKNOWN;
+        }
+        for (int i = 0; i < uniformBindings.length; i++) {
+            if (uniformBindings[i] == name) uniformBindings[i] = UNKNOWN;
+        }
+    }
+
+    /**
+     * Marks every binding as unknown, the next bind of anything is issued.
+     */
+    public void invalidate() {
+        program = UNKNOWN;
+        vertexArray = UNKNOWN;
+        activeTexture = UNKNOWN;
+        Arrays.fill(buffers, UNKNOWN);
+        Arrays.fill(textures, UNKNOWN);
+        Arrays.fill(uniformBindings, UNKNOWN);
+    }
+
+    /**
+     * Publishes the issued and avoided call counts of the frame that just ended and starts counting the next one.
+     */
+    public void endFrame() {
+        frameIssued = issued;
+        frameAvoided = avoided;
+        issued = 0;
+        avoided = 0;
+    }
+
+    private static int slotOf(int[] targets, int target) {
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
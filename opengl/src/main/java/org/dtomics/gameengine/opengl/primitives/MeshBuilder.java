@@ -0,0 +1,218 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import lombok.Getter;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Builds interleaved vertices and unsigned int indices straight into off-heap memory taken from a
+ * {@link NativeBufferPool}, so generating a mesh allocates no heap arrays and uploading it copies
+ * nothing. Attributes of a vertex are written in {@link VertexLayout} order between
+ * {@link #vertex()} and {@link #endVertex()}. Not thread safe, {@link #close()} returns the memory to
+ * the pool and any later use throws.
+ */
+public class MeshBuilder implements AutoCloseable {
+    private static final int DEFAULT_VERTICES = 1024;
+
+    @Getter private final VertexLayout layout;
+    private final NativeBufferPool pool;
+    private final int stride;
+
+    private ByteBuffer vertices;
+    private ByteBuffer indices;
+    private long vertexAddress;
+    private long indexAddress;
+    private long cursor = -1;
+    private long vertexEnd;
+    @Getter private int vertexCount;
+    @Getter private int indexCount;
+
+    public MeshBuilder(VertexLayout layout) {
+        this(layout, NativeBufferPool.shared());
+    }
+
+    public MeshBuilder(VertexLayout layout, NativeBufferPool pool) {
+        this.layout = layout;
+        this.pool = pool;
+        this.stride = layout.getStride();
+        this.vertices = pool.acquire(DEFAULT_VERTICES * stride);
+        this.indices = pool.acquire(DEFAULT_VERTICES * Integer.BYTES);
+        this.vertexAddress = MemoryUtil.memAddress(vertices);
+        this.indexAddress = MemoryUtil.memAddress(indices);
+    }
+
+    /**
+     * Starts a new vertex.
+     */
+    public MeshBuilder vertex() {
+        ensureOpen();
+        if (cursor >= 0) {
+            throw new IllegalStateException("previous vertex not ended");
+        }
+        final long required = (long) (vertexCount + 1) * stride;
+        if (required > vertices.capacity()) {
+            vertices = grow(vertices, vertexCount * stride, required);
+            vertexAddress = MemoryUtil.memAddress(vertices);
+        }
+        cursor = vertexAddress + (long) vertexCount * stride;
+        vertexEnd = cursor + stride;
+        return this;
+    }
+
+    public MeshBuilder put(float x) {
+        final long address = advance(Float.BYTES);
+        MemoryUtil.memPutFloat(address, x);
+        return this;
+    }
+
+    public MeshBuilder put(float x, float y) {
+        final long address = advance(2 * Float.BYTES);
+        MemoryUtil.memPutFloat(address, x);
+        MemoryUtil.memPutFloat(address + 4, y);
+        return this;
+    }
+
+    public MeshBuilder put(float x, float y, float z) {
+        final long address = advance(3 * Float.BYTES);
+        MemoryUtil.memPutFloat(address, x);
+        MemoryUtil.memPutFloat(address + 4, y);
+        MemoryUtil.memPutFloat(address + 8, z);
+        return this;
+    }
+
+    public MeshBuilder put(float x, float y, float z, float w) {
+        final long address = advance(4 * Float.BYTES);
+        MemoryUtil.memPutFloat(address, x);
+        MemoryUtil.memPutFloat(address + 4, y);
+        MemoryUtil.memPutFloat(address + 8, z);
+        MemoryUtil.memPutFloat(address + 12, w);
+        return this;
+    }
+
+    /**
+     * Writes four normalized bytes packed as {@code 0xRRGGBBAA}.
+     */
+    public MeshBuilder color(int rgba) {
+        final long address = advance(4);
+        MemoryUtil.memPutByte(address, (byte) (rgba >>> 24));
+        MemoryUtil.memPutByte(address + 1, (byte) (rgba >>> 16));
+        MemoryUtil.memPutByte(address + 2, (byte) (rgba >>> 8));
+        MemoryUtil.memPutByte(address + 3, (byte) rgba);
+        return this;
+    }
+
+    /**
+     * Ends the current vertex.
+     *
+     * @return index of the vertex
+     */
+    public int endVertex() {
+        ensureOpen();
+        if (cursor != vertexEnd) {
+            throw new IllegalStateException(cursor < 0 ? "no vertex started" : "vertex has %d bytes. layout expects %d"
+                    .formatted(cursor - vertexEnd + stride, stride));
+        }
+        cursor = -1;
+        return vertexCount++;
+    }
+
+    public MeshBuilder index(int index) {
+        ensureOpen();
+        final long required = (long) (indexCount + 1) * Integer.BYTES;
+        if (required > indices.capacity()) {
+            indices = grow(indices, indexCount * Integer.BYTES, required);
+            indexAddress = MemoryUtil.memAddress(indices);
+        }
+        MemoryUtil.memPutInt(indexAddress + (long) indexCount * Integer.BYTES, index);
+        indexCount++;
+        return this;
+    }
+
+    public MeshBuilder triangle(int a, int b, int c) {
+        return index(a).index(b).index(c);
+    }
+
+    /**
+     * Two triangles over four vertices in counter clockwise order.
+     */
+    public MeshBuilder quad(int a, int b, int c, int d) {
+        return triangle(a, b, c).triangle(c, d, a);
+    }
+
+    /**
+     * View of the vertices written so far, valid until the next write.
+     */
+    public ByteBuffer vertices() {
+        ensureOpen();
+        return MemoryUtil.memByteBuffer(vertexAddress, vertexCount * stride);
+    }
+
+    /**
+     * View of the indices written so far, valid until the next write.
+     */
+    public ByteBuffer indices() {
+        ensureOpen();
+        return MemoryUtil.memByteBuffer(indexAddress, indexCount * Integer.BYTES);
+    }
+
+    /**
+     * Replaces the storage of the buffers with the mesh. The index buffer may be null for unindexed meshes.
+     */
+    public void upload(VertexBuffer vertexBuffer, VertexBuffer indexBuffer, int usage) {
+        ensureOpen();
+        vertexBuffer.allocate((long) vertexCount * stride, usage);
+        vertexBuffer.upload(0, vertices());
+        if (indexBuffer != null) {
+            indexBuffer.allocate((long) indexCount * Integer.BYTES, usage);
+            indexBuffer.upload(0, indices());
+        }
+    }
+
+    /**
+     * Discards the mesh but keeps the memory for the next one.
+     */
+    public void reset() {
+        vertexCount = 0;
+        indexCount = 0;
+        cursor = -1;
+    }
+
+    @Override
+    public void close() {
+        if (vertices != null) {
+            pool.release(vertices);
+            pool.release(indices);
+            vertices = null;
+            indices = null;
+            cursor = -1;
+        }
+    }
+
+    private void ensureOpen() {
+        if (vertices == null) {
+            throw new IllegalStateException("mesh builder is closed");
+        }
+    }
+
+    private long advance(int bytes) {
+        ensureOpen();
+        final long address = cursor;
+        if (address < 0 || address + bytes > vertexEnd) {
+            throw new IllegalStateException(address < 0 ? "no vertex started" : "vertex larger than %d bytes".formatted(stride));
+        }
+        cursor = address + bytes;
+        return address;
+    }
+
+    private ByteBuffer grow(ByteBuffer buffer, int used, long required) {
+        final long capacity = Math.max(required, (long) buffer.capacity() << 1);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("mesh larger than %d bytes".formatted(Integer.MAX_VALUE));
+        }
+        final var grown = pool.acquire((int) capacity);
+        MemoryUtil.memCopy(MemoryUtil.memAddress(buffer), MemoryUtil.memAddress(grown), used);
+        pool.release(buffer);
+        return grown;
+    }
+}
@@ -0,0 +1,46 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+/**
+ * Open addressing map from names to ints, filled once after linking and read on the hot path.
+ * Lookups reuse the cached {@link String#hashCode()} and allocate nothing.
+ */
+final class NameTable {
+    static final int MISSING = -1;
+
+    private final String[] names;
+    private final int[] values;
+    private final int mask;
+
+    NameTable(int expected) {
+        final int capacity = Integer.highestOneBit(Math.max(expected, 1) * 2 - 1) << 1;
+        this.names = new String[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    void put(String name, int value) {
+        int slot = slotOf(name);
+        while (names[slot] != null && !names[slot].equals(name)) {
+            slot = (slot + 1) & mask;
+        }
+        names[slot] = name;
+        values[slot] = value;
+    }
+
+    int get(String name) {
+        int slot = slotOf(name);
+        String candidate;
+        while ((candidate = names[slot]) != null) {
+            if (candidate.equals(name)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    private int slotOf(String name) {
+        final int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,120 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import lombok.Getter;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of off-heap staging buffers in power of two size classes. {@link #acquire(int)} hands out a
+ * released buffer of the matching class when there is one, so repeated uploads of similar sizes stop
+ * allocating native memory. Buffers above the largest class are allocated and freed directly.
+ * Thread safe, every size class has its own lock.
+ */
+public class NativeBufferPool {
+    public static final int MIN_CLASS_SHIFT = 8;
+    public static final int MAX_CLASS_SHIFT = 26;
+    public static final int DEFAULT_RETAINED_PER_CLASS = 8;
+
+    private static final NativeBufferPool SHARED = new NativeBufferPool(DEFAULT_RETAINED_PER_CLASS);
+
+    private final ArrayDeque<ByteBuffer>[] classes;
+    private final int retainedPerClass;
+
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    @Getter private final int maxPooledSize = 1 << MAX_CLASS_SHIFT;
+
+    @SuppressWarnings("unchecked")
+    public NativeBufferPool(int retainedPerClass) {
+        if (retainedPerClass < 0) {
+            throw new IllegalArgumentException("invalid retained buffer count %d. should not be negative".formatted(retainedPerClass));
+        }
+        this.retainedPerClass = retainedPerClass;
+        this.classes = (ArrayDeque<ByteBuffer>[]) new ArrayDeque<?>[MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new ArrayDeque<>(retainedPerClass);
+        }
+    }
+
+    public static NativeBufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return a buffer with position 0 and limit {@code bytes}. Its contents are undefined, its capacity may be larger.
+     */
+    public ByteBuffer acquire(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("invalid buffer size %d. should not be negative".formatted(bytes));
+        }
+        if (bytes > maxPooledSize) {
+            allocated.increment();
+            return MemoryUtil.memAlloc(bytes);
+        }
+        final int sizeClass = classOf(bytes);
+        final var free = classes[sizeClass];
+        ByteBuffer buffer;
+        synchronized (free) {
+            buffer = free.pollLast();
+        }
+        if (buffer == null) {
+            allocated.increment();
+            buffer = MemoryUtil.memAlloc(1 << (sizeClass + MIN_CLASS_SHIFT));
+        } else {
+            reused.increment();
+        }
+        return buffer.clear().limit(bytes);
+    }
+
+    /**
+     * Returns a buffer from {@link #acquire(int)}. The buffer must not be used afterwards.
+     */
+    public void release(ByteBuffer buffer) {
+        final int capacity = buffer.capacity();
+        if (capacity > maxPooledSize) {
+            MemoryUtil.memFree(buffer);
+            return;
+        }
+        if (Integer.bitCount(capacity) != 1 || capacity < 1 << MIN_CLASS_SHIFT) {
+            throw new IllegalArgumentException("buffer of %d bytes was not acquired from this pool".formatted(capacity));
+        }
+        final var free = classes[Integer.numberOfTrailingZeros(capacity) - MIN_CLASS_SHIFT];
+        synchronized (free) {
+            if (free.size() < retainedPerClass) {
+                free.addLast(buffer);
+                return;
+            }
+        }
+        MemoryUtil.memFree(buffer);
+    }
+
+    /**
+     * Frees every retained buffer. Buffers handed out stay valid and can still be released.
+     */
+    public void trim() {
+        for (final var free : classes) {
+            synchronized (free) {
+                ByteBuffer buffer;
+                while ((buffer = free.pollLast()) != null) {
+                    MemoryUtil.memFree(buffer);
+                }
+            }
+        }
+    }
+
+    public long getAllocated() {
+        return allocated.sum();
+    }
+
+    public long getReused() {
+        return reused.sum();
+    }
+
+    private static int classOf(int bytes) {
+        final int shift = bytes <= 1 << MIN_CLASS_SHIFT ? MIN_CLASS_SHIFT : 32 - Integer.numberOfLeadingZeros(bytes - 1);
+        return shift - MIN_CLASS_SHIFT;
+    }
+}
@@ -1,14 +1,311 @@
 package org.dtomics.gameengine.opengl.primitives;
 
-import org.dtomics.gameengine.specification.render.RenderThread;
+import org.dtomics.gameengine.opengl.render.OpenglRenderThread;
+import org.dtomics.gameengine.opengl.render.TextureAtlas;
+import org.dtomics.gameengine.opengl.render.UploadQueue;
+import org.lwjgl.system.MemoryUtil;
 
-public final class PrimitiveFactory {
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
-    private static RenderThread renderThread;
-//    public static VAO createVao() {
-//
-////        renderThread.submit();
-//
-//    }
+import static org.lwjgl.opengl.GL11C.GL_RGBA;
+import static org.lwjgl.opengl.GL11C.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL15C.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_STATIC_DRAW;
 
+/**
+ * Creates gpu resources without blocking the caller or the render thread. Generating or decoding
+ * runs on virtual threads into pooled off-heap staging memory, the result is uploaded by the
+ * render thread through its {@link UploadQueue} under the per-frame byte budget. The returned
+ * futures complete on the render thread, dependent work that is not gl work should use the async
+ * variants of {@link CompletableFuture}.
+ */
+public final class PrimitiveFactory implements AutoCloseable {
+    private final UploadQueue uploads;
+    private final ExecutorService decoders;
+
+    public PrimitiveFactory(OpenglRenderThread renderThread) {
+        this(renderThread.getUploads(), Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public PrimitiveFactory(UploadQueue uploads, ExecutorService decoders) {
+        this.uploads = uploads;
+        this.decoders = decoders;
+    }
+
+    /**
+     * Generates a mesh off the render thread and uploads it into a new vertex array. Meshes without indices
+     * are drawn unindexed. The vertex array has its layout and count set up, the shader is left to the caller.
+     */
+    public CompletableFuture<VAO> mesh(VertexLayout layout, Consumer<MeshBuilder> generator) {
+        final var future = new CompletableFuture<VAO>();
+        decoders.execute(() -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            final var builder = new MeshBuilder(layout);
+            try {
+                generator.accept(builder);
+            } catch (RuntimeException e) {
+                builder.close();
+                future.completeExceptionally(e);
+                return;
+            }
+            uploads.submit(new MeshUpload(builder, future));
+        });
+        return future;
+    }
+
+    /**
+     * Decodes or generates an image of tightly packed rgba8 texels off the render thread and uploads it into a
+     * region of the base level of {@code texture}, a band of rows per frame under the upload budget. The generator
+     * fills a staging buffer of {@code width * height * 4} bytes.
+     */
+    public CompletableFuture<Texture> pixels(Texture texture, int x, int y, int layer, int width, int height,
+                                             Consumer<ByteBuffer> generator) {
+        final var future = new CompletableFuture<Texture>();
+        stage(width, height, generator, future, pixels -> new PixelUpload<>(pixels, width, height, future) {
+            @Override
+            protected Texture place() {
+                this.place(texture, x, y, layer);
+                return texture;
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Like {@link #pixels}, but packs the image into an atlas. The region is reserved on the render thread when the
+     * upload starts, the future completes exceptionally if the atlas is full. Mipmaps are marked stale once the
+     * texels are uploaded, regenerating them is left to {@link TextureAtlas#updateMipmaps()}.
+     */
+    public CompletableFuture<TextureAtlas.Region> image(TextureAtlas atlas, int width, int height,
+                                                        Consumer<ByteBuffer> generator) {
+        final var future = new CompletableFuture<TextureAtlas.Region>();
+        stage(width, height, generator, future, pixels -> new PixelUpload<>(pixels, width, height, future) {
+            @Override
+            protected TextureAtlas.Region place() {
+                final var region = atlas.reserve(width, height);
+                if (region == null) {
+                    throw new IllegalStateException("no room for a %dx%d image in the atlas".formatted(width, height));
+                }
+                this.place(atlas.getTexture(), region.x(), region.y(), region.layer());
+                return region;
+            }
+
+            @Override
+            protected void uploaded() {
+                atlas.invalidateMipmaps();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Stops accepting work, decodes already started still finish.
+     */
+    @Override
+    public void close() {
+        decoders.shutdown();
+    }
+
+    private <T> void stage(int width, int height, Consumer<ByteBuffer> generator, CompletableFuture<T> future,
+                           Function<ByteBuffer, PixelUpload<T>> upload) {
+        if (width <= 0 || height <= 0 || (long) width * height * 4 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid image size %dx%d".formatted(width, height));
+        }
+        decoders.execute(() -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            final var pool = NativeBufferPool.shared();
+            final var pixels = pool.acquire(width * height * 4);
+            try {
+                generator.accept(pixels);
+            } catch (RuntimeException e) {
+                pool.release(pixels);
+                future.completeExceptionally(e);
+                return;
+            }
+            uploads.submit(upload.apply(pixels.clear().limit(width * height * 4)));
+        });
+    }
+
+    /**
+     * Uploads staged texels a band of whole rows at a time straight from the pooled staging memory. Going through
+     * a pixel buffer object would only add a copy, the driver copies client memory on upload already.
+     */
+    private abstract static class PixelUpload<T> implements UploadQueue.Upload {
+        private final ByteBuffer pixels;
+        private final int width;
+        private final int height;
+        private final CompletableFuture<T> future;
+        private Texture texture;
+        private int x;
+        private int y;
+        private int layer;
+        private T result;
+        private int row;
+        private boolean done;
+
+        private PixelUpload(ByteBuffer pixels, int width, int height, CompletableFuture<T> future) {
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            this.future = future;
+        }
+
+        /**
+         * Picks the destination with {@link #place(Texture, int, int, int)}, on the render thread before the first row.
+         *
+         * @return the value the future completes with
+         */
+        protected abstract T place();
+
+        /**
+         * Called on the render thread once every row is uploaded, before the future completes.
+         */
+        protected void uploaded() {
+        }
+
+        protected final void place(Texture texture, int x, int y, int layer) {
+            this.texture = texture;
+            this.x = x;
+            this.y = y;
+            this.layer = layer;
+        }
+
+        @Override
+        public long step(long budget) {
+            if (future.isCancelled()) {
+                release();
+                done = true;
+                return 0;
+            }
+            if (texture == null) {
+                result = place();
+            }
+            final int rowBytes = width * 4;
+            // always a row, so an image wider than the budget still makes progress
+            final int rows = (int) Math.max(1, Math.min(height - row, budget / rowBytes));
+            texture.upload(x, y + row, layer, width, rows, GL_RGBA, GL_UNSIGNED_BYTE,
+                    MemoryUtil.memSlice(pixels, row * rowBytes, rows * rowBytes));
+            row += rows;
+            if (row == height) {
+                release();
+                done = true;
+                uploaded();
+                future.complete(result);
+            }
+            return (long) rows * rowBytes;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            release();
+            future.completeExceptionally(cause);
+        }
+
+        private void release() {
+            NativeBufferPool.shared().release(pixels);
+        }
+    }
+
+    private static final class MeshUpload implements UploadQueue.Upload {
+        private final MeshBuilder builder;
+        private final CompletableFuture<VAO> future;
+        private VertexBuffer vertexBuffer;
+        private VertexBuffer indexBuffer;
+        private VAO vao;
+        private int vertexOffset;
+        private int indexOffset;
+        private boolean done;
+
+        private MeshUpload(MeshBuilder builder, CompletableFuture<VAO> future) {
+            this.builder = builder;
+            this.future = future;
+        }
+
+        @Override
+        public long step(long budget) {
+            if (future.isCancelled()) {
+                release();
+                done = true;
+                return 0;
+            }
+            final var vertices = builder.vertices();
+            final var indices = builder.indices();
+            if (vao == null) {
+                create(vertices.remaining(), indices.remaining());
+            }
+            long used = upload(vertexBuffer, vertices, vertexOffset, budget);
+            vertexOffset += (int) used;
+            if (indexBuffer != null && vertexOffset == vertices.remaining()) {
+                final long indexBytes = upload(indexBuffer, indices, indexOffset, budget - used);
+                indexOffset += (int) indexBytes;
+                used += indexBytes;
+            }
+            if (vertexOffset == vertices.remaining() && indexOffset == indices.remaining()) {
+                builder.close();
+                done = true;
+                future.complete(vao);
+            }
+            return used;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            release();
+            future.completeExceptionally(cause);
+        }
+
+        private void create(int vertexBytes, int indexBytes) {
+            vertexBuffer = new VertexBuffer(GL_ARRAY_BUFFER);
+            vertexBuffer.allocate(vertexBytes, GL_STATIC_DRAW);
+            vao = new VAO();
+            vao.setVertexBuffer(vertexBuffer);
+            if (indexBytes > 0) {
+                indexBuffer = new VertexBuffer(GL_ELEMENT_ARRAY_BUFFER);
+                indexBuffer.allocate(indexBytes, GL_STATIC_DRAW);
+                vao.setIndexBuffer(indexBuffer);
+                vao.setCount(builder.getIndexCount());
+            } else {
+                vao.setCount(builder.getVertexCount());
+            }
+            builder.getLayout().apply(vao);
+        }
+
+        private static long upload(VertexBuffer buffer, ByteBuffer data, int offset, long budget) {
+            final int bytes = (int) Math.min(budget, data.remaining() - offset);
+            if (bytes <= 0) {
+                return 0;
+            }
+            buffer.upload(offset, MemoryUtil.memSlice(data, offset, bytes));
+            return bytes;
+        }
+
+        private void release() {
+            builder.close();
+            if (vao != null) {
+                vao.cleanUp();
+                vertexBuffer.cleanUp();
+                if (indexBuffer != null) indexBuffer.cleanUp();
+            }
+        }
+    }
 }
@@ -0,0 +1,194 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import lombok.Getter;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.lwjgl.opengl.GL11C.GL_RENDERER;
+import static org.lwjgl.opengl.GL11C.GL_TRUE;
+import static org.lwjgl.opengl.GL11C.GL_VENDOR;
+import static org.lwjgl.opengl.GL11C.GL_VERSION;
+import static org.lwjgl.opengl.GL11C.glGetInteger;
+import static org.lwjgl.opengl.GL11C.glGetString;
+import static org.lwjgl.opengl.GL20C.glGetProgrami;
+import static org.lwjgl.opengl.GL41C.GL_NUM_PROGRAM_BINARY_FORMATS;
+import static org.lwjgl.opengl.GL41C.GL_PROGRAM_BINARY_LENGTH;
+import static org.lwjgl.opengl.GL41C.GL_PROGRAM_BINARY_RETRIEVABLE_HINT;
+import static org.lwjgl.opengl.GL41C.glGetProgramBinary;
+import static org.lwjgl.opengl.GL41C.glProgramParameteri;
+
+/**
+ * Stores linked program binaries on disk so later launches skip compiling and linking. Entries are
+ * keyed by a hash of the shader sources and the gl vendor, renderer and version, so a driver update
+ * never sees a binary of another driver. A binary the driver still rejects is deleted and the program
+ * is built from source again. The cache is best effort, io failures only cost a rebuild. Must be used
+ * on the thread owning the gl context.
+ */
+public class ProgramBinaryCache {
+    private static final String EXTENSION = ".bin";
+    private static final int MAGIC = 0x50424331;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private Boolean supported;
+    private String driver;
+
+    @Getter private int hits;
+    @Getter private int misses;
+    @Getter private int rejected;
+    @Getter private long loadNanos;
+
+    public ProgramBinaryCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns a linked program for the sources, keyed by shader type, loaded from the cache when possible.
+     */
+    public Shader load(Map<Integer, String> sources) {
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("no shader sources");
+        }
+        final long start = System.nanoTime();
+        try {
+            if (!isSupported()) {
+                misses++;
+                return build(sources, false);
+            }
+            final var file = directory.resolve(key(sources) + EXTENSION);
+            final var cached = loadCached(file);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            final var shader = build(sources, true);
+            store(file, shader);
+            return shader;
+        } finally {
+            loadNanos += System.nanoTime() - start;
+        }
+    }
+
+    public boolean isSupported() {
+        if (supported == null) {
+            final var capabilities = GL.getCapabilities();
+            supported = (capabilities.OpenGL41 || capabilities.GL_ARB_get_program_binary)
+                    && glGetInteger(GL_NUM_PROGRAM_BINARY_FORMATS) > 0;
+        }
+        return supported;
+    }
+
+    private Shader loadCached(Path file) {
+        final byte[] bytes;
+        try {
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            return null;
+        }
+        final var header = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (bytes.length <= HEADER_BYTES || header.getInt() != MAGIC) {
+            delete(file);
+            return null;
+        }
+        final int format = header.getInt();
+
+        final var binary = MemoryUtil.memAlloc(bytes.length - HEADER_BYTES);
+        try {
+            binary.put(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES).flip();
+            final var shader = new Shader();
+            if (shader.linkBinary(format, binary)) {
+                return shader;
+            }
+            shader.cleanUp();
+        } finally {
+            MemoryUtil.memFree(binary);
+        }
+        rejected++;
+        delete(file);
+        return null;
+    }
+
+    private static Shader build(Map<Integer, String> sources, boolean retrievable) {
+        final var shader = new Shader();
+        try {
+            if (retrievable) {
+                glProgramParameteri(shader.getProgram(), GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL_TRUE);
+            }
+            sources.forEach(shader::attachShader);
+            shader.link();
+            return shader;
+        } catch (RuntimeException e) {
+            shader.cleanUp();
+            throw e;
+        }
+    }
+
+    private void store(Path file, Shader shader) {
+        final int length = glGetProgrami(shader.getProgram(), GL_PROGRAM_BINARY_LENGTH);
+        if (length <= 0) {
+            return;
+        }
+        final var binary = MemoryUtil.memAlloc(length);
+        try (final var stack = MemoryStack.stackPush()) {
+            final var written = stack.mallocInt(1);
+            final var format = stack.mallocInt(1);
+            glGetProgramBinary(shader.getProgram(), written, format, binary);
+
+            final var bytes = new byte[HEADER_BYTES + written.get(0)];
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(MAGIC).putInt(format.get(0));
+            binary.get(0, bytes, HEADER_BYTES, written.get(0));
+
+            Files.createDirectories(directory);
+            final var temporary = Files.createTempFile(directory, null, EXTENSION);
+            Files.write(temporary, bytes);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the program is linked, it just gets built again next launch
+        } finally {
+            MemoryUtil.memFree(binary);
+        }
+    }
+
+    private String key(Map<Integer, String> sources) {
+        if (driver == null) {
+            driver = glGetString(GL_VENDOR) + '\0' + glGetString(GL_RENDERER) + '\0' + glGetString(GL_VERSION);
+        }
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(driver.getBytes(StandardCharsets.UTF_8));
+            for (final var source : new TreeMap<>(sources).entrySet()) {
+                digest.update(("\0" + source.getKey() + "\0").getBytes(StandardCharsets.UTF_8));
+                digest.update(source.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("sha-256 not available", e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // overwritten by the next store
+        }
+    }
+}
@@ -1,18 +1,40 @@
 package org.dtomics.gameengine.opengl.primitives;
 
+import lombok.Getter;
 import org.lwjgl.opengl.GL20C;
+import org.lwjgl.system.MemoryStack;
 
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.lwjgl.opengl.GL20C.*;
+import static org.lwjgl.opengl.GL31C.GL_ACTIVE_UNIFORM_BLOCKS;
+import static org.lwjgl.opengl.GL31C.glGetActiveUniformBlockName;
+import static org.lwjgl.opengl.GL31C.glUniformBlockBinding;
+import static org.lwjgl.opengl.GL41C.glProgramBinary;
+import static org.lwjgl.opengl.GL41C.glProgramUniform1f;
+import static org.lwjgl.opengl.GL41C.glProgramUniform1i;
+import static org.lwjgl.opengl.GL41C.glProgramUniform2f;
+import static org.lwjgl.opengl.GL41C.glProgramUniform3f;
+import static org.lwjgl.opengl.GL41C.glProgramUniform4f;
+import static org.lwjgl.opengl.GL41C.glProgramUniformMatrix4fv;
 
+/**
+ * Shader program. Active uniforms and uniform blocks are reflected once the program is linked, so
+ * {@link #uniformLocation(String)} never reaches gl. Setters write through {@code glProgramUniform*}
+ * and do not need the program to be bound.
+ */
 public class Shader implements Primitive {
+    private static final String ARRAY_SUFFIX = "[0]";
 
-    private final int program;
+    @Getter private final int program;
 
     private List<Integer> shaders;
     private boolean linked;
+    private NameTable uniforms;
+    private NameTable blocks;
 
     public Shader() {
         this.program = glCreateProgram();
@@ -29,8 +51,10 @@ public class Shader implements Primitive {
         glShaderSource(shader, path);
         glCompileShader(shader);
         if (glGetShaderi(shader, GL_COMPILE_STATUS) == 0) {
+            final var log = glGetShaderInfoLog(shader);
+            glDeleteShader(shader);
             throw new IllegalStateException("failed to compile shader " + type
-                    , new RuntimeException(glGetShaderInfoLog(shader)));
+                    , new RuntimeException(log));
         }
         glAttachShader(this.program, shader);
         shaders.add(shader);
@@ -49,20 +73,131 @@ public class Shader implements Primitive {
         shaders.clear();
         shaders = null;
         linked = true;
+        reflect();
+    }
+
+    /**
+     * Links the program from a binary retrieved with {@code glGetProgramBinary}, see {@link ProgramBinaryCache}.
+     *
+     * @return false if the driver rejected the binary, the program is left unlinked
+     */
+    public boolean linkBinary(int format, ByteBuffer binary) {
+        if (linked) {
+            throw new IllegalStateException("shader already linked");
+        }
+        glProgramBinary(program, format, binary);
+        if (glGetProgrami(program, GL_LINK_STATUS) == 0) {
+            return false;
+        }
+        linked = true;
+        reflect();
+        return true;
+    }
+
+    /**
+     * @return location of an active uniform, or -1 if the program has no such uniform. Arrays are found by their
+     * plain name, elements after the first as {@code name[i]} are located with {@code location + i}.
+     */
+    public int uniformLocation(String name) {
+        if (!linked) {
+            throw new IllegalStateException("shader not linked");
+        }
+        return uniforms.get(name);
+    }
+
+    public boolean hasUniform(String name) {
+        return uniformLocation(name) != NameTable.MISSING;
+    }
+
+    /**
+     * Points a uniform block of this program at a binding point, see {@link UniformBuffer#bindBase()}.
+     *
+     * @return false if the program has no active block with that name
+     */
+    public boolean bindBlock(String name, int binding) {
+        if (!linked) {
+            throw new IllegalStateException("shader not linked");
+        }
+        final int block = blocks.get(name);
+        if (block == NameTable.MISSING) {
+            return false;
+        }
+        glUniformBlockBinding(program, block, binding);
+        return true;
+    }
+
+    public void setUniform(int location, int value) {
+        glProgramUniform1i(program, location, value);
+    }
+
+    public void setUniform(int location, float value) {
+        glProgramUniform1f(program, location, value);
+    }
+
+    public void setUniform(int location, float x, float y) {
+        glProgramUniform2f(program, location, x, y);
+    }
+
+    public void setUniform(int location, float x, float y, float z) {
+        glProgramUniform3f(program, location, x, y, z);
+    }
+
+    public void setUniform(int location, float x, float y, float z, float w) {
+        glProgramUniform4f(program, location, x, y, z, w);
+    }
+
+    /**
+     * Sets a column major 4x4 matrix, or an array of them, from the remaining floats of {@code matrices}.
+     */
+    public void setUniformMatrix4(int location, FloatBuffer matrices) {
+        glProgramUniformMatrix4fv(program, location, false, matrices);
+    }
+
+    private void reflect() {
+        final int uniformCount = glGetProgrami(program, GL_ACTIVE_UNIFORMS);
+        this.uniforms = new NameTable(uniformCount);
+        try (final var stack = MemoryStack.stackPush()) {
+            final var size = stack.mallocInt(1);
+            final var type = stack.mallocInt(1);
+            for (int i = 0; i < uniformCount; i++) {
+                var name = glGetActiveUniform(program, i, size, type);
+                final int location = glGetUniformLocation(program, name);
+                if (location < 0) {
+                    // members of uniform blocks have no location
+                    continue;
+                }
+                if (name.endsWith(ARRAY_SUFFIX)) {
+                    name = name.substring(0, name.length() - ARRAY_SUFFIX.length());
+                }
+                uniforms.put(name, location);
+            }
+        }
+
+        final int blockCount = glGetProgrami(program, GL_ACTIVE_UNIFORM_BLOCKS);
+        this.blocks = new NameTable(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            blocks.put(glGetActiveUniformBlockName(program, i), i);
+        }
     }
 
     @Override
     public void bind() {
-        glUseProgram(program);
+        GlState.current().useProgram(program);
     }
 
     @Override
     public void unbind() {
-        glUseProgram(0);
+        GlState.current().unbindProgram();
     }
 
     @Override
     public void cleanUp() {
+        if (shaders != null) {
+            // attached but never linked, e.g. because linking failed
+            shaders.forEach(GL20C::glDeleteShader);
+            shaders = null;
+        }
         glDeleteProgram(program);
+        GlState.current().deleted(program);
     }
 }
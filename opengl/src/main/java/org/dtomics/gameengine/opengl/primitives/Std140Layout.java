@@ -0,0 +1,58 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+/**
+ * Computes member offsets of a uniform block declared with {@code layout(std140)}. Members have to be
+ * added in declaration order, each call returns the offset of the member it adds.
+ */
+public final class Std140Layout {
+    private static final int VEC4_BYTES = 16;
+
+    private int size;
+
+    public int scalar() {
+        return place(4, 4);
+    }
+
+    public int vec2() {
+        return place(8, 8);
+    }
+
+    public int vec3() {
+        return place(12, VEC4_BYTES);
+    }
+
+    public int vec4() {
+        return place(VEC4_BYTES, VEC4_BYTES);
+    }
+
+    public int mat4() {
+        return place(4 * VEC4_BYTES, VEC4_BYTES);
+    }
+
+    /**
+     * Arrays round the stride of every element up to a vec4, {@code float[4]} takes 64 bytes.
+     */
+    public int array(int elements, int elementBytes) {
+        if (elements <= 0 || elementBytes <= 0) {
+            throw new IllegalArgumentException("invalid array of %d elements of %d bytes".formatted(elements, elementBytes));
+        }
+        return place(elements * align(elementBytes, VEC4_BYTES), VEC4_BYTES);
+    }
+
+    /**
+     * Size of the block, padded to a vec4 like the driver does.
+     */
+    public int size() {
+        return align(size, VEC4_BYTES);
+    }
+
+    private int place(int bytes, int alignment) {
+        final int offset = align(size, alignment);
+        size = offset + bytes;
+        return offset;
+    }
+
+    private static int align(int value, int alignment) {
+        return (value + alignment - 1) & -alignment;
+    }
+}
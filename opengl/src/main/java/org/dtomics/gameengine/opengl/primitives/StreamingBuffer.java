@@ -0,0 +1,173 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import lombok.Getter;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15C.GL_STREAM_DRAW;
+import static org.lwjgl.opengl.GL30C.GL_MAP_WRITE_BIT;
+import static org.lwjgl.opengl.GL32C.GL_ALREADY_SIGNALED;
+import static org.lwjgl.opengl.GL32C.GL_CONDITION_SATISFIED;
+import static org.lwjgl.opengl.GL32C.GL_SYNC_FLUSH_COMMANDS_BIT;
+import static org.lwjgl.opengl.GL32C.GL_SYNC_GPU_COMMANDS_COMPLETE;
+import static org.lwjgl.opengl.GL32C.GL_WAIT_FAILED;
+import static org.lwjgl.opengl.GL32C.glClientWaitSync;
+import static org.lwjgl.opengl.GL32C.glDeleteSync;
+import static org.lwjgl.opengl.GL32C.glFenceSync;
+import static org.lwjgl.opengl.GL44C.GL_MAP_COHERENT_BIT;
+import static org.lwjgl.opengl.GL44C.GL_MAP_PERSISTENT_BIT;
+import static org.lwjgl.opengl.GL45C.glMapNamedBufferRange;
+import static org.lwjgl.opengl.GL45C.glNamedBufferData;
+import static org.lwjgl.opengl.GL45C.glNamedBufferStorage;
+import static org.lwjgl.opengl.GL45C.glUnmapNamedBuffer;
+import static org.lwjgl.opengl.GL45C.nglNamedBufferSubData;
+
+/**
+ * Buffer for dynamic data that is rewritten every frame. The storage is split into a ring of
+ * regions, each guarded by a fence, and is mapped once for the lifetime of the buffer, so data is
+ * written straight into memory the gpu reads from. {@link #begin()} only waits if the gpu is still
+ * reading the region that comes up next.
+ * <p>
+ * Without {@code glBufferStorage} (before OpenGL 4.4 and without ARB_buffer_storage) data is written
+ * to an off-heap staging copy and uploaded with {@code glNamedBufferSubData} on {@link #flush()}.
+ */
+public class StreamingBuffer extends VertexBuffer {
+    private static final int MAP_FLAGS = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+    private static final long FENCE_TIMEOUT_NANOS = 1_000_000L;
+
+    @Getter private final long regionSize;
+    @Getter private final int regions;
+    @Getter private final boolean persistent;
+    private final ByteBuffer memory;
+    private final long[] fences;
+
+    private int region = -1;
+    private long cursor;
+    private long flushed;
+    @Getter private long stalls;
+
+    public StreamingBuffer(int type, int regionSize, int regions) {
+        super(type);
+        if (regionSize <= 0 || regions <= 0 || (long) regionSize * regions > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid streaming buffer of %d regions of %d bytes".formatted(regions, regionSize));
+        }
+        this.regionSize = regionSize;
+        this.regions = regions;
+        this.fences = new long[regions];
+
+        final var capabilities = GL.getCapabilities();
+        this.persistent = capabilities.OpenGL44 || capabilities.GL_ARB_buffer_storage;
+        final long size = (long) regionSize * regions;
+        if (persistent) {
+            glNamedBufferStorage(getPointer(), size, MAP_FLAGS);
+            this.memory = glMapNamedBufferRange(getPointer(), 0, size, MAP_FLAGS);
+            if (this.memory == null) {
+                throw new IllegalStateException("failed to map streaming buffer");
+            }
+        } else {
+            glNamedBufferData(getPointer(), size, GL_STREAM_DRAW);
+            this.memory = MemoryUtil.memAlloc((int) size);
+        }
+    }
+
+    @Override
+    public void allocate(long size, int usage) {
+        throw new IllegalStateException("streaming buffer storage can not be reallocated");
+    }
+
+    /**
+     * Moves to the next region, waiting for the gpu to finish reading it if needed.
+     */
+    public void begin() {
+        region = (region + 1) % regions;
+        awaitFence(region);
+        cursor = (long) region * regionSize;
+        flushed = cursor;
+    }
+
+    /**
+     * Reserves bytes in the current region.
+     *
+     * @return absolute offset of the reserved bytes in {@link #memory()} and in the gl buffer, or -1 if the region
+     * has not enough space left
+     */
+    public long reserve(int bytes) {
+        if (region < 0) {
+            throw new IllegalStateException("streaming buffer not started");
+        }
+        if (cursor + bytes > (long) (region + 1) * regionSize) {
+            return -1;
+        }
+        final long offset = cursor;
+        cursor += bytes;
+        return offset;
+    }
+
+    public long remaining() {
+        return region < 0 ? 0 : (long) (region + 1) * regionSize - cursor;
+    }
+
+    /**
+     * The whole mapped range. Writes have to use absolute offsets returned by {@link #reserve(int)}.
+     */
+    public ByteBuffer memory() {
+        return memory;
+    }
+
+    /**
+     * Makes everything written since the last flush visible to following draws.
+     */
+    public void flush() {
+        if (!persistent && cursor > flushed) {
+            nglNamedBufferSubData(getPointer(), flushed, cursor - flushed, MemoryUtil.memAddress(memory) + flushed);
+        }
+        flushed = cursor;
+    }
+
+    /**
+     * Flushes the current region and fences it, it will not be written again until the gpu passed the fence.
+     */
+    public void end() {
+        if (region < 0) {
+            return;
+        }
+        flush();
+        if (persistent) {
+            fences[region] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        }
+    }
+
+    @Override
+    public void cleanUp() {
+        for (int i = 0; i < regions; i++) {
+            if (fences[i] != 0) {
+                glDeleteSync(fences[i]);
+                fences[i] = 0;
+            }
+        }
+        if (persistent) {
+            glUnmapNamedBuffer(getPointer());
+        } else {
+            MemoryUtil.memFree(memory);
+        }
+        super.cleanUp();
+    }
+
+    private void awaitFence(int region) {
+        final long fence = fences[region];
+        if (fence == 0) {
+            return;
+        }
+        int status = glClientWaitSync(fence, 0, 0);
+        if (status != GL_ALREADY_SIGNALED) {
+            stalls++;
+            while (status != GL_ALREADY_SIGNALED && status != GL_CONDITION_SATISFIED && status != GL_WAIT_FAILED) {
+                status = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT_NANOS);
+            }
+        }
+        glDeleteSync(fence);
+        fences[region] = 0;
+    }
+}
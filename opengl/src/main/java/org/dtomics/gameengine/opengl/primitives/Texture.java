@@ -0,0 +1,128 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL11C.GL_LINEAR;
+import static org.lwjgl.opengl.GL11C.GL_LINEAR_MIPMAP_LINEAR;
+import static org.lwjgl.opengl.GL11C.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11C.GL_TEXTURE_MAG_FILTER;
+import static org.lwjgl.opengl.GL11C.GL_TEXTURE_MIN_FILTER;
+import static org.lwjgl.opengl.GL11C.GL_TEXTURE_WRAP_S;
+import static org.lwjgl.opengl.GL11C.GL_TEXTURE_WRAP_T;
+import static org.lwjgl.opengl.GL11C.glDeleteTextures;
+import static org.lwjgl.opengl.GL12C.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL30C.GL_TEXTURE_2D_ARRAY;
+import static org.lwjgl.opengl.GL45C.glCreateTextures;
+import static org.lwjgl.opengl.GL45C.glGenerateTextureMipmap;
+import static org.lwjgl.opengl.GL45C.glTextureParameteri;
+import static org.lwjgl.opengl.GL45C.glTextureStorage2D;
+import static org.lwjgl.opengl.GL45C.glTextureStorage3D;
+import static org.lwjgl.opengl.GL45C.glTextureSubImage2D;
+import static org.lwjgl.opengl.GL45C.glTextureSubImage3D;
+
+/**
+ * Immutable storage 2d or 2d array texture. Uploads and parameters go through direct state access,
+ * only sampling needs {@link #bind(int)}.
+ */
+public class Texture implements Primitive {
+    @Getter private final int pointer;
+    @Getter private final int target;
+    @Getter private final int width;
+    @Getter private final int height;
+    @Getter private final int layers;
+    @Getter private final int levels;
+
+    private Texture(int target, int width, int height, int layers, int levels, int internalFormat) {
+        if (width <= 0 || height <= 0 || layers <= 0) {
+            throw new IllegalArgumentException("invalid texture of %dx%d with %d layers".formatted(width, height, layers));
+        }
+        if (levels <= 0 || levels > levelsFor(width, height)) {
+            throw new IllegalArgumentException("invalid level count %d. should be between 1 and %d".formatted(levels, levelsFor(width, height)));
+        }
+        this.target = target;
+        this.width = width;
+        this.height = height;
+        this.layers = layers;
+        this.levels = levels;
+        this.pointer = glCreateTextures(target);
+        if (target == GL_TEXTURE_2D_ARRAY) {
+            glTextureStorage3D(pointer, levels, internalFormat, width, height, layers);
+        } else {
+            glTextureStorage2D(pointer, levels, internalFormat, width, height);
+        }
+        setFilter(levels > 1 ? GL_LINEAR_MIPMAP_LINEAR : GL_LINEAR, GL_LINEAR);
+        setWrap(GL_CLAMP_TO_EDGE);
+    }
+
+    public static Texture create2D(int width, int height, int levels, int internalFormat) {
+        return new Texture(GL_TEXTURE_2D, width, height, 1, levels, internalFormat);
+    }
+
+    public static Texture createArray(int width, int height, int layers, int levels, int internalFormat) {
+        return new Texture(GL_TEXTURE_2D_ARRAY, width, height, layers, levels, internalFormat);
+    }
+
+    /**
+     * @return the level count of a full mipmap chain down to 1x1
+     */
+    public static int levelsFor(int width, int height) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(width, height));
+    }
+
+    /**
+     * Uploads a rectangle of pixels into a layer of the base level.
+     */
+    public void upload(int x, int y, int layer, int width, int height, int format, int type, ByteBuffer pixels) {
+        if (x < 0 || y < 0 || x + width > this.width || y + height > this.height || layer < 0 || layer >= layers) {
+            throw new IllegalArgumentException("invalid region %dx%d at %d,%d on layer %d".formatted(width, height, x, y, layer));
+        }
+        if (target == GL_TEXTURE_2D_ARRAY) {
+            glTextureSubImage3D(pointer, 0, x, y, layer, width, height, 1, format, type, pixels);
+        } else {
+            glTextureSubImage2D(pointer, 0, x, y, width, height, format, type, pixels);
+        }
+    }
+
+    /**
+     * Rebuilds every level below the base level from it.
+     */
+    public void generateMipmaps() {
+        if (levels > 1) {
+            glGenerateTextureMipmap(pointer);
+        }
+    }
+
+    public void setFilter(int min, int mag) {
+        glTextureParameteri(pointer, GL_TEXTURE_MIN_FILTER, min);
+        glTextureParameteri(pointer, GL_TEXTURE_MAG_FILTER, mag);
+    }
+
+    public void setWrap(int wrap) {
+        glTextureParameteri(pointer, GL_TEXTURE_WRAP_S, wrap);
+        glTextureParameteri(pointer, GL_TEXTURE_WRAP_T, wrap);
+    }
+
+    public void bind(int unit) {
+        GlState.current().bindTexture(unit, target, pointer);
+    }
+
+    @Override
+    public void bind() {
+        this.bind(0);
+    }
+
+    @Override
+    public void unbind() {
+        if (GlState.DEBUG) {
+            GlState.current().bindTexture(0, target, 0);
+        }
+    }
+
+    @Override
+    public void cleanUp() {
+        glDeleteTextures(pointer);
+        GlState.current().deleted(pointer);
+    }
+}
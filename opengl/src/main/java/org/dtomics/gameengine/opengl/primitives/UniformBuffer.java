@@ -0,0 +1,104 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import lombok.Getter;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15C.GL_DYNAMIC_DRAW;
+import static org.lwjgl.opengl.GL31C.GL_UNIFORM_BUFFER;
+import static org.lwjgl.opengl.GL45C.nglNamedBufferSubData;
+
+/**
+ * Uniform buffer holding a {@link Std140Layout std140} block that is shared by every program binding
+ * the block to the same binding point. Members are written into an off-heap copy and
+ * {@link #update()} uploads the changed range with a single sub data call.
+ */
+public class UniformBuffer extends VertexBuffer {
+    @Getter private final int binding;
+    private final ByteBuffer data;
+    private int dirtyFrom = Integer.MAX_VALUE;
+    private int dirtyTo;
+
+    public UniformBuffer(Std140Layout layout, int binding) {
+        super(GL_UNIFORM_BUFFER);
+        if (binding < 0) {
+            throw new IllegalArgumentException("invalid binding %d. should not be negative".formatted(binding));
+        }
+        this.binding = binding;
+        this.data = MemoryUtil.memCalloc(layout.size());
+        super.allocate(layout.size(), GL_DYNAMIC_DRAW);
+    }
+
+    @Override
+    public void allocate(long size, int usage) {
+        throw new IllegalStateException("uniform buffer size is fixed by its layout");
+    }
+
+    public void putInt(int offset, int value) {
+        data.putInt(offset, value);
+        dirty(offset, Integer.BYTES);
+    }
+
+    public void putFloat(int offset, float value) {
+        data.putFloat(offset, value);
+        dirty(offset, Float.BYTES);
+    }
+
+    public void putVec2(int offset, float x, float y) {
+        data.putFloat(offset, x).putFloat(offset + 4, y);
+        dirty(offset, 2 * Float.BYTES);
+    }
+
+    public void putVec3(int offset, float x, float y, float z) {
+        data.putFloat(offset, x).putFloat(offset + 4, y).putFloat(offset + 8, z);
+        dirty(offset, 3 * Float.BYTES);
+    }
+
+    public void putVec4(int offset, float x, float y, float z, float w) {
+        data.putFloat(offset, x).putFloat(offset + 4, y).putFloat(offset + 8, z).putFloat(offset + 12, w);
+        dirty(offset, 4 * Float.BYTES);
+    }
+
+    /**
+     * Writes a column major 4x4 matrix from the next 16 floats of {@code matrix}.
+     */
+    public void putMat4(int offset, FloatBuffer matrix) {
+        final int position = matrix.position();
+        for (int i = 0; i < 16; i++) {
+            data.putFloat(offset + i * Float.BYTES, matrix.get(position + i));
+        }
+        dirty(offset, 16 * Float.BYTES);
+    }
+
+    /**
+     * Uploads everything written since the last update.
+     */
+    public void update() {
+        if (dirtyTo <= dirtyFrom) {
+            return;
+        }
+        nglNamedBufferSubData(getPointer(), dirtyFrom, dirtyTo - dirtyFrom, MemoryUtil.memAddress(data) + dirtyFrom);
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = 0;
+    }
+
+    /**
+     * Attaches the buffer to its binding point, where blocks bound with {@link Shader#bindBlock} read it.
+     */
+    public void bindBase() {
+        GlState.current().bindBufferBase(GL_UNIFORM_BUFFER, binding, getPointer());
+    }
+
+    @Override
+    public void cleanUp() {
+        MemoryUtil.memFree(data);
+        super.cleanUp();
+    }
+
+    private void dirty(int offset, int bytes) {
+        dirtyFrom = Math.min(dirtyFrom, offset);
+        dirtyTo = Math.max(dirtyTo, offset + bytes);
+    }
+}
@@ -1,50 +1,173 @@
 package org.dtomics.gameengine.opengl.primitives;
 
+import lombok.Getter;
 import lombok.Setter;
 import org.dtomics.gameengine.specification.render.Renderable;
 import org.dtomics.gameengine.specification.window.Window;
 
+import java.nio.ByteBuffer;
+
 import static org.lwjgl.opengl.GL11C.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11C.GL_UNSIGNED_INT;
 import static org.lwjgl.opengl.GL11C.glDrawArrays;
-import static org.lwjgl.opengl.GL30C.glBindVertexArray;
+import static org.lwjgl.opengl.GL11C.glDrawElements;
+import static org.lwjgl.opengl.GL15C.GL_STREAM_DRAW;
+import static org.lwjgl.opengl.GL20C.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20C.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30C.glDeleteVertexArrays;
+import static org.lwjgl.opengl.GL30C.glVertexAttribIPointer;
+import static org.lwjgl.opengl.GL31C.glDrawArraysInstanced;
+import static org.lwjgl.opengl.GL31C.glDrawElementsInstanced;
+import static org.lwjgl.opengl.GL33C.glVertexAttribDivisor;
 import static org.lwjgl.opengl.GL45C.glCreateVertexArrays;
+import static org.lwjgl.opengl.GL45C.glVertexArrayElementBuffer;
 
+/**
+ * Vertex array with an optional index buffer and an optional per-instance attribute buffer. With
+ * instance attributes set up, {@link #draw(int, int)} renders every instance of the mesh in one draw
+ * call, the instance data is replaced in bulk with {@link #updateInstances(ByteBuffer, int)}.
+ */
 public class VAO implements Primitive, Renderable {
-    private final int pointer;
+    @Getter private final int pointer;
+
+    @Setter private VertexBuffer vertexBuffer;
+    private VertexBuffer indexBuffer;
+    @Setter private VertexBuffer instanceBuffer;
+    @Setter private Shader shader;
 
-    private Buffer vertexBuffer;
-    private Buffer indexBuffer;
-    private Shader shader;
+    @Getter @Setter private int mode = GL_TRIANGLES;
+    @Getter @Setter private int indexType = GL_UNSIGNED_INT;
+    /**
+     * vertices, or indices when an index buffer is set, drawn by {@link #render(Window)}
+     */
+    @Getter @Setter private int count;
+    @Getter @Setter private int instanceCount = 1;
 
-    protected VAO() {
+    public VAO() {
         this.pointer = glCreateVertexArrays();
     }
 
+    /**
+     * Attaches the index buffer right away, the element array binding is part of the vertex array state. Null
+     * detaches it and makes {@link #draw(int, int)} draw arrays.
+     */
+    public void setIndexBuffer(VertexBuffer indexBuffer) {
+        final int buffer = indexBuffer == null ? 0 : indexBuffer.getPointer();
+        glVertexArrayElementBuffer(pointer, buffer);
+        GlState.current().elementBufferChanged(pointer, buffer);
+        this.indexBuffer = indexBuffer;
+    }
+
+    /**
+     * Describes a vertex attribute sourced from the current vertex buffer.
+     */
+    public void attribute(int index, int size, int type, boolean normalized, int stride, long offset) {
+        this.bind();
+        if (vertexBuffer != null) vertexBuffer.bind();
+        glVertexAttribPointer(index, size, type, normalized, stride, offset);
+        glEnableVertexAttribArray(index);
+        this.unbind();
+    }
+
+    /**
+     * Describes an attribute sourced from the instance buffer that advances once every {@code divisor} instances.
+     * Matrices take one attribute per column.
+     */
+    public void instanceAttribute(int index, int size, int type, boolean normalized, int stride, long offset, int divisor) {
+        if (instanceBuffer == null) {
+            throw new IllegalStateException("no instance buffer set");
+        }
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("invalid divisor %d. should be greater than zero".formatted(divisor));
+        }
+        this.bind();
+        instanceBuffer.bind();
+        glVertexAttribPointer(index, size, type, normalized, stride, offset);
+        glVertexAttribDivisor(index, divisor);
+        glEnableVertexAttribArray(index);
+        this.unbind();
+    }
+
+    /**
+     * Like {@link #instanceAttribute} for integer attributes, which reach the shader unconverted.
+     */
+    public void instanceIntegerAttribute(int index, int size, int type, int stride, long offset, int divisor) {
+        if (instanceBuffer == null) {
+            throw new IllegalStateException("no instance buffer set");
+        }
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("invalid divisor %d. should be greater than zero".formatted(divisor));
+        }
+        this.bind();
+        instanceBuffer.bind();
+        glVertexAttribIPointer(index, size, type, stride, offset);
+        glVertexAttribDivisor(index, divisor);
+        glEnableVertexAttribArray(index);
+        this.unbind();
+    }
+
+    /**
+     * Replaces the instance data with the remaining bytes of {@code data} and sets the instance count. The old
+     * storage is orphaned, so draws still reading last frame's instances do not stall the upload.
+     */
+    public void updateInstances(ByteBuffer data, int instances) {
+        if (instanceBuffer == null) {
+            throw new IllegalStateException("no instance buffer set");
+        }
+        if (instances < 0) {
+            throw new IllegalArgumentException("invalid instance count %d. should not be negative".formatted(instances));
+        }
+        final long bytes = data.remaining();
+        final long capacity = instanceBuffer.getSize();
+        instanceBuffer.allocate(bytes > capacity ? Math.max(bytes, capacity << 1) : capacity, GL_STREAM_DRAW);
+        instanceBuffer.upload(0, data);
+        this.instanceCount = instances;
+    }
+
+    /**
+     * Draws {@code count} vertices, or indices when an index buffer is set, once per instance.
+     */
+    public void draw(int count, int instances) {
+        if (count <= 0 || instances <= 0) {
+            return;
+        }
+        this.bind();
+        if (shader != null) shader.bind();
+        if (indexBuffer != null) {
+            if (instances == 1) {
+                glDrawElements(mode, count, indexType, 0);
+            } else {
+                glDrawElementsInstanced(mode, count, indexType, 0, instances);
+            }
+        } else if (instances == 1) {
+            glDrawArrays(mode, 0, count);
+        } else {
+            glDrawArraysInstanced(mode, 0, count, instances);
+        }
+    }
 
     @Override
     public void bind() {
-        glBindVertexArray(this.pointer);
+        GlState.current().bindVertexArray(this.pointer);
     }
 
     @Override
     public void unbind() {
-        glBindVertexArray(0);
+        GlState.current().unbindVertexArray();
     }
 
     @Override
     public void render(Window window) {
-        this.bind();
-        if (shader != null) shader.bind();
-        if (vertexBuffer != null) vertexBuffer.bind();
-        if(indexBuffer != null) {
-            indexBuffer.bind();
-        }
-
+        this.draw(count, instanceCount);
 
         if(shader != null) shader.unbind();
-        if(vertexBuffer!=null) vertexBuffer.unbind();
-        if(indexBuffer != null) indexBuffer.unbind();
         this.unbind();
     }
 
+    @Override
+    public void cleanUp() {
+        glDeleteVertexArrays(pointer);
+        GlState.current().deleted(pointer);
+    }
+
 }
@@ -1,26 +1,56 @@
 package org.dtomics.gameengine.opengl.primitives;
 
-import static org.lwjgl.opengl.GL15C.glBindBuffer;
-import static org.lwjgl.opengl.GL15C.glGenBuffers;
+import lombok.Getter;
 
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15C.glDeleteBuffers;
+import static org.lwjgl.opengl.GL45C.glCreateBuffers;
+import static org.lwjgl.opengl.GL45C.glNamedBufferData;
+import static org.lwjgl.opengl.GL45C.glNamedBufferSubData;
+
+/**
+ * Buffer object of one binding target. Storage is specified and filled through direct state access,
+ * so neither touches the current bindings: binding an index buffer to upload it would otherwise
+ * attach it to whatever vertex array is still bound.
+ */
 public class VertexBuffer implements Primitive {
 
-    private int pointer;
-    private int type;
+    @Getter private final int pointer;
+    @Getter private final int type;
+    @Getter private long size;
 
-    VertexBuffer(int type) {
+    public VertexBuffer(int type) {
         this.type = type;
-        this.pointer = glGenBuffers();
+        this.pointer = glCreateBuffers();
+    }
+
+    /**
+     * (Re)specifies the storage of the buffer. Calling it again with the same size orphans the old storage, so the
+     * driver does not have to wait for draws still reading from it.
+     */
+    public void allocate(long size, int usage) {
+        glNamedBufferData(pointer, size, usage);
+        this.size = size;
     }
 
+    public void upload(long offset, ByteBuffer data) {
+        glNamedBufferSubData(pointer, offset, data);
+    }
 
     @Override
     public void bind() {
-        glBindBuffer(type, pointer);
+        GlState.current().bindBuffer(type, pointer);
     }
 
     @Override
     public void unbind() {
-        glBindBuffer(type, 0);
+        GlState.current().unbindBuffer(type);
+    }
+
+    @Override
+    public void cleanUp() {
+        glDeleteBuffers(pointer);
+        GlState.current().deleted(pointer);
     }
 }
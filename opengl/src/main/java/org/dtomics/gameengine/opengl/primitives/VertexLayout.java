@@ -0,0 +1,92 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11C.GL_FLOAT;
+import static org.lwjgl.opengl.GL11C.GL_UNSIGNED_BYTE;
+
+/**
+ * Interleaved vertex format. Attributes are laid out in the order they are added, {@link #apply(VAO)}
+ * describes them on a vertex array and {@link MeshBuilder} writes vertices in the same order.
+ */
+public final class VertexLayout {
+    public record Attribute(int location, int components, int type, boolean normalized, int offset) {
+        public int bytes() {
+            return components * (type == GL_FLOAT ? Float.BYTES : Byte.BYTES);
+        }
+    }
+
+    private final Attribute[] attributes;
+    @Getter private final int stride;
+
+    private VertexLayout(Attribute[] attributes, int stride) {
+        this.attributes = attributes;
+        this.stride = stride;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int attributeCount() {
+        return attributes.length;
+    }
+
+    public Attribute attribute(int index) {
+        return attributes[index];
+    }
+
+    public void apply(VAO vao) {
+        for (final var attribute : attributes) {
+            vao.attribute(attribute.location(), attribute.components(), attribute.type(), attribute.normalized(), stride, attribute.offset());
+        }
+    }
+
+    public static final class Builder {
+        private final List<Attribute> attributes = new ArrayList<>();
+        private int stride;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a {@code float} to {@code vec4} attribute.
+         */
+        public Builder floats(int location, int components) {
+            return add(location, components, GL_FLOAT, false);
+        }
+
+        /**
+         * Adds unsigned bytes the shader reads as floats between 0 and 1, e.g. a packed color.
+         */
+        public Builder normalizedBytes(int location, int components) {
+            return add(location, components, GL_UNSIGNED_BYTE, true);
+        }
+
+        public VertexLayout build() {
+            if (attributes.isEmpty()) {
+                throw new IllegalStateException("vertex layout has no attributes");
+            }
+            return new VertexLayout(attributes.toArray(Attribute[]::new), stride);
+        }
+
+        private Builder add(int location, int components, int type, boolean normalized) {
+            if (components < 1 || components > 4) {
+                throw new IllegalArgumentException("invalid component count %d. should be between 1 and 4".formatted(components));
+            }
+            for (final var attribute : attributes) {
+                if (attribute.location() == location) {
+                    throw new IllegalArgumentException("location %d already used".formatted(location));
+                }
+            }
+            final var attribute = new Attribute(location, components, type, normalized, stride);
+            attributes.add(attribute);
+            // every attribute starts 4 byte aligned
+            stride += (attribute.bytes() + 3) & -4;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.dtomics.gameengine.opengl.render;
+
+import lombok.Getter;
+import org.dtomics.gameengine.specification.metrics.TimingHistogram;
+import org.lwjgl.opengl.GL;
+
+import static org.lwjgl.opengl.GL11C.glFinish;
+import static org.lwjgl.opengl.GL32C.GL_ALREADY_SIGNALED;
+import static org.lwjgl.opengl.GL32C.GL_CONDITION_SATISFIED;
+import static org.lwjgl.opengl.GL32C.GL_SYNC_FLUSH_COMMANDS_BIT;
+import static org.lwjgl.opengl.GL32C.GL_SYNC_GPU_COMMANDS_COMPLETE;
+import static org.lwjgl.opengl.GL32C.GL_WAIT_FAILED;
+import static org.lwjgl.opengl.GL32C.glClientWaitSync;
+import static org.lwjgl.opengl.GL32C.glDeleteSync;
+import static org.lwjgl.opengl.GL32C.glFenceSync;
+
+/**
+ * Bounds how many frames the cpu may queue ahead of the gpu. Every swap is followed by a fence, and
+ * once more than {@link #getMaxFramesInFlight()} fences are pending the oldest one is waited on.
+ * Fewer frames in flight lower input latency, at the cost of the throughput the driver gains by
+ * hiding gpu spikes behind queued frames. Must be used on the render thread.
+ * <p>
+ * How far the cpu runs ahead is measured either way: the time since the oldest unfinished frame was
+ * submitted is recorded after every swap. Without sync objects (before OpenGL 3.2 and without
+ * ARB_sync) a limit of one frame falls back to {@code glFinish} and nothing is measured.
+ */
+public class FrameLimiter {
+    /**
+     * leaves queueing frames to the driver, frames ahead are still measured
+     */
+    public static final int UNLIMITED = 0;
+    public static final int MAX_FRAMES_IN_FLIGHT = 8;
+    private static final long FENCE_TIMEOUT_NANOS = 1_000_000L;
+
+    private final boolean fenced;
+    private final long[] fences = new long[MAX_FRAMES_IN_FLIGHT + 1];
+    private final long[] submitted = new long[MAX_FRAMES_IN_FLIGHT + 1];
+    private int oldest;
+    private int pending;
+
+    @Getter private volatile int maxFramesInFlight;
+    @Getter private volatile int framesAhead;
+    @Getter private volatile long cpuAheadNanos;
+    @Getter private volatile long stalls;
+    @Getter private final TimingHistogram cpuAhead = new TimingHistogram();
+
+    public FrameLimiter(int maxFramesInFlight) {
+        final var capabilities = GL.getCapabilities();
+        this.fenced = capabilities.OpenGL32 || capabilities.GL_ARB_sync;
+        this.setMaxFramesInFlight(maxFramesInFlight);
+    }
+
+    /**
+     * Can be called from any thread, takes effect after the next swap. With sync objects a limit of {@code n} lets
+     * {@link #frameSwapped()} return with up to {@code n} frames, the one just swapped included, still on the gpu.
+     * Without them a limit of one waits with {@code glFinish} until none is, so the same limit costs a frame more
+     * latency than with fences, and limits above one are not enforced at all.
+     */
+    public void setMaxFramesInFlight(int maxFramesInFlight) {
+        if (maxFramesInFlight < UNLIMITED || maxFramesInFlight > MAX_FRAMES_IN_FLIGHT) {
+            throw new IllegalArgumentException("invalid frames in flight %d. should be between %d and %d"
+                    .formatted(maxFramesInFlight, UNLIMITED, MAX_FRAMES_IN_FLIGHT));
+        }
+        this.maxFramesInFlight = maxFramesInFlight;
+    }
+
+    /**
+     * Fences the frame that was just swapped and waits until no more than the limit of frames are pending.
+     */
+    public void frameSwapped() {
+        final int limit = this.maxFramesInFlight;
+        if (!fenced) {
+            if (limit == 1) {
+                glFinish();
+            }
+            return;
+        }
+        retireSignaled();
+        if (pending == fences.length) {
+            // unlimited and the driver queues more frames than tracked, forget the oldest
+            glDeleteSync(fences[oldest]);
+            retireOldest();
+        }
+        final int slot = (oldest + pending) % fences.length;
+        fences[slot] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        submitted[slot] = System.nanoTime();
+        pending++;
+
+        if (limit != UNLIMITED && pending > limit) {
+            stalls++;
+            while (pending > limit) {
+                awaitOldest();
+            }
+        }
+
+        final long ahead = pending == 0 ? 0 : System.nanoTime() - submitted[oldest];
+        cpuAhead.record(ahead);
+        this.cpuAheadNanos = ahead;
+        this.framesAhead = pending;
+    }
+
+    /**
+     * Deletes every pending fence without waiting on it.
+     */
+    public void cleanUp() {
+        while (pending > 0) {
+            glDeleteSync(fences[oldest]);
+            retireOldest();
+        }
+        this.framesAhead = 0;
+        this.cpuAheadNanos = 0;
+    }
+
+    private void retireSignaled() {
+        while (pending > 0) {
+            final int status = glClientWaitSync(fences[oldest], 0, 0);
+            if (status != GL_ALREADY_SIGNALED && status != GL_CONDITION_SATISFIED && status != GL_WAIT_FAILED) {
+                return;
+            }
+            glDeleteSync(fences[oldest]);
+            retireOldest();
+        }
+    }
+
+    private void awaitOldest() {
+        final long fence = fences[oldest];
+        int status = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT_NANOS);
+        while (status != GL_ALREADY_SIGNALED && status != GL_CONDITION_SATISFIED && status != GL_WAIT_FAILED) {
+            status = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT_NANOS);
+        }
+        glDeleteSync(fence);
+        retireOldest();
+    }
+
+    private void retireOldest() {
+        fences[oldest] = 0;
+        oldest = (oldest + 1) % fences.length;
+        pending--;
+    }
+}
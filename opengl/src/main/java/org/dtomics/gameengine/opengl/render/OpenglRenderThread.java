@@ -1,16 +1,28 @@
 package org.dtomics.gameengine.opengl.render;
 
+import lombok.Getter;
+import org.dtomics.gameengine.opengl.primitives.GlState;
 import org.dtomics.gameengine.specification.render.RenderThread;
 import org.dtomics.gameengine.specification.window.Window;
+import org.dtomics.gameengine.specification.window.WindowState;
 import org.lwjgl.opengl.GL;
 import org.lwjgl.opengl.GL11C;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
+import static org.lwjgl.glfw.GLFW.glfwSwapInterval;
 import static org.lwjgl.opengl.GL11C.glViewport;
 
 public class OpenglRenderThread extends RenderThread {
+    public static final int DEFAULT_FRAMES_IN_FLIGHT = 2;
+
+    private volatile GlState glState;
+    private volatile FrameLimiter frameLimiter;
+    private volatile int maxFramesInFlight = DEFAULT_FRAMES_IN_FLIGHT;
+    private WindowState appliedState;
+    @Getter private volatile long windowStateChanges;
+    @Getter private final UploadQueue uploads = new UploadQueue();
 
     public OpenglRenderThread(Window window) {
         super(window);
@@ -19,13 +31,105 @@ public class OpenglRenderThread extends RenderThread {
     @Override
     protected void init(Window window) {
         GL.createCapabilities();
+        this.glState = GlState.current();
+        this.frameLimiter = new FrameLimiter(maxFramesInFlight);
         GL11C.glClearColor(0f, 0f, 0f, 0.3f);
-        glViewport(0, 0, window.config().getWidth(), window.config().getHeight());
+        final var state = window.state();
+        glViewport(0, 0, state.width(), state.height());
+        glfwSwapInterval(state.vsync() ? 1 : 0);
+        this.appliedState = state;
     }
 
     @Override
     protected void render(Window window) {
+        applyWindowState(window);
+        uploads.apply();
+    }
+
+    @Override
+    protected void afterSwap(Window window) {
+        frameLimiter.frameSwapped();
+        // after the renderables were drawn, so the counters cover the whole frame
+        glState.endFrame();
+    }
+
+    @Override
+    protected void dispose(Window window) {
+        frameLimiter.cleanUp();
+    }
+
+    /**
+     * Applies the latest window state at the start of the frame. However many snapshots were published since the
+     * last frame, only the newest one is applied, and only the parts that changed.
+     */
+    private void applyWindowState(Window window) {
+        final var state = window.state();
+        final var applied = this.appliedState;
+        if (state.version() == applied.version()) {
+            return;
+        }
+        if (state.width() != applied.width() || state.height() != applied.height()) {
+            glViewport(0, 0, state.width(), state.height());
+        }
+        if (state.vsync() != applied.vsync()) {
+            glfwSwapInterval(state.vsync() ? 1 : 0);
+        }
+        this.appliedState = state;
+        windowStateChanges++;
+    }
+
+    /**
+     * Limits how many swapped frames the gpu may still be working on before the next frame starts, lower limits
+     * trade throughput for input latency. {@link FrameLimiter#UNLIMITED} leaves it to the driver. Drivers without sync
+     * objects enforce only a limit of one, and more strictly, see {@link FrameLimiter#setMaxFramesInFlight(int)}.
+     */
+    public void setMaxFramesInFlight(int maxFramesInFlight) {
+        if (maxFramesInFlight < FrameLimiter.UNLIMITED || maxFramesInFlight > FrameLimiter.MAX_FRAMES_IN_FLIGHT) {
+            throw new IllegalArgumentException("invalid frames in flight %d. should be between %d and %d"
+                    .formatted(maxFramesInFlight, FrameLimiter.UNLIMITED, FrameLimiter.MAX_FRAMES_IN_FLIGHT));
+        }
+        this.maxFramesInFlight = maxFramesInFlight;
+        final var limiter = this.frameLimiter;
+        if (limiter != null) {
+            limiter.setMaxFramesInFlight(maxFramesInFlight);
+        }
+    }
+
+    /**
+     * @return frames the gpu was still working on after the last swap
+     */
+    public int getFramesAhead() {
+        final var limiter = this.frameLimiter;
+        return limiter == null ? 0 : limiter.getFramesAhead();
+    }
+
+    /**
+     * @return how long ago the oldest frame the gpu was still working on after the last swap was submitted
+     */
+    public long getCpuAheadNanos() {
+        final var limiter = this.frameLimiter;
+        return limiter == null ? 0 : limiter.getCpuAheadNanos();
+    }
+
+    /**
+     * @return the frame limiter, null until the render thread started
+     */
+    public FrameLimiter getFrameLimiter() {
+        return frameLimiter;
+    }
+
+    /**
+     * @return gl binding calls issued during the last frame
+     */
+    public long getIssuedGlCalls() {
+        return glState == null ? 0 : glState.getFrameIssued();
+    }
 
+    /**
+     * @return gl binding calls skipped during the last frame because the binding was already current
+     */
+    public long getAvoidedGlCalls() {
+        return glState == null ? 0 : glState.getFrameAvoided();
     }
 
     public <T> T submitAndGet(Callable<T> callable) {
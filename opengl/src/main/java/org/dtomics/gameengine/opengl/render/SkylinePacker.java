@@ -0,0 +1,157 @@
+package org.dtomics.gameengine.opengl.render;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Bottom-left skyline rectangle packer. The skyline is the top edge of everything packed so far,
+ * a rectangle goes where it rests lowest on it, ties broken by the narrower fit. Space below the
+ * skyline that no rectangle covers can not be used anymore and is counted as waste.
+ */
+public class SkylinePacker {
+    @Getter private final int width;
+    @Getter private final int height;
+
+    private int[] xs;
+    private int[] ys;
+    private int[] widths;
+    private int nodes;
+
+    @Getter private long usedArea;
+    @Getter private long skylineArea;
+
+    public SkylinePacker(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("invalid packer size %dx%d".formatted(width, height));
+        }
+        this.width = width;
+        this.height = height;
+        this.xs = new int[16];
+        this.ys = new int[16];
+        this.widths = new int[16];
+        this.xs[0] = 0;
+        this.ys[0] = 0;
+        this.widths[0] = width;
+        this.nodes = 1;
+    }
+
+    /**
+     * @return position packed as {@code x << 32 | y}, or -1 if the rectangle does not fit anymore
+     */
+    public long insert(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("invalid rectangle %dx%d".formatted(width, height));
+        }
+        int bestNode = -1;
+        int bestY = Integer.MAX_VALUE;
+        int bestWidth = Integer.MAX_VALUE;
+        for (int i = 0; i < nodes; i++) {
+            final int y = fit(i, width, height);
+            if (y >= 0 && (y < bestY || y == bestY && widths[i] < bestWidth)) {
+                bestNode = i;
+                bestY = y;
+                bestWidth = widths[i];
+            }
+        }
+        if (bestNode < 0) {
+            return -1;
+        }
+        final int x = xs[bestNode];
+        place(bestNode, x, bestY, width, height);
+        usedArea += (long) width * height;
+        return (long) x << 32 | bestY;
+    }
+
+    public boolean isEmpty() {
+        return usedArea == 0;
+    }
+
+    /**
+     * @return area below the skyline no rectangle covers
+     */
+    public long getWastedArea() {
+        return skylineArea - usedArea;
+    }
+
+    /**
+     * @return lowest y a rectangle starting at node {@code index} rests at, or -1 if it does not fit there
+     */
+    private int fit(int index, int width, int height) {
+        final int x = xs[index];
+        if (x + width > this.width) {
+            return -1;
+        }
+        int remaining = width;
+        int y = 0;
+        for (int i = index; remaining > 0; i++) {
+            y = Math.max(y, ys[i]);
+            if (y + height > this.height) {
+                return -1;
+            }
+            remaining -= widths[i];
+        }
+        return y;
+    }
+
+    private void place(int index, int x, int y, int width, int height) {
+        // area between the old skyline and the bottom of the new rectangle becomes unreachable
+        long below = 0;
+        int covered = 0;
+        for (int i = index; covered < width; i++) {
+            final int span = Math.min(widths[i], width - covered);
+            below += (long) span * (y - ys[i]);
+            covered += span;
+        }
+        skylineArea += below + (long) width * height;
+
+        insertNode(index, x, y + height, width);
+        // shrink or drop the nodes the new one shadows
+        final int end = x + width;
+        int i = index + 1;
+        while (i < nodes && xs[i] < end) {
+            final int shrink = end - xs[i];
+            if (shrink >= widths[i]) {
+                removeNode(i);
+            } else {
+                xs[i] += shrink;
+                widths[i] -= shrink;
+                break;
+            }
+        }
+        mergeNodes();
+    }
+
+    private void insertNode(int index, int x, int y, int width) {
+        if (nodes == xs.length) {
+            xs = Arrays.copyOf(xs, nodes << 1);
+            ys = Arrays.copyOf(ys, nodes << 1);
+            widths = Arrays.copyOf(widths, nodes << 1);
+        }
+        System.arraycopy(xs, index, xs, index + 1, nodes - index);
+        System.arraycopy(ys, index, ys, index + 1, nodes - index);
+        System.arraycopy(widths, index, widths, index + 1, nodes - index);
+        xs[index] = x;
+        ys[index] = y;
+        widths[index] = width;
+        nodes++;
+    }
+
+    private void removeNode(int index) {
+        System.arraycopy(xs, index + 1, xs, index, nodes - index - 1);
+        System.arraycopy(ys, index + 1, ys, index, nodes - index - 1);
+        System.arraycopy(widths, index + 1, widths, index, nodes - index - 1);
+        nodes--;
+    }
+
+    private void mergeNodes() {
+        for (int i = 0; i < nodes - 1; ) {
+            if (ys[i] == ys[i + 1]) {
+                widths[i] += widths[i + 1];
+                removeNode(i + 1);
+            } else {
+                i++;
+            }
+        }
+    }
+}
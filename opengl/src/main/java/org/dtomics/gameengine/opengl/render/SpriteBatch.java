@@ -0,0 +1,229 @@
+package org.dtomics.gameengine.opengl.render;
+
+import lombok.Getter;
+import org.dtomics.gameengine.opengl.primitives.GlState;
+import org.dtomics.gameengine.opengl.primitives.Shader;
+import org.dtomics.gameengine.opengl.primitives.StreamingBuffer;
+import org.dtomics.gameengine.opengl.primitives.VAO;
+import org.dtomics.gameengine.opengl.primitives.VertexBuffer;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL11C.GL_FLOAT;
+import static org.lwjgl.opengl.GL11C.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11C.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11C.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11C.GL_UNSIGNED_INT;
+import static org.lwjgl.opengl.GL15C.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL30C.GL_TEXTURE_2D_ARRAY;
+import static org.lwjgl.opengl.GL32C.glDrawElementsBaseVertex;
+
+/**
+ * Accumulates textured quads into one streaming vertex buffer and draws them with as few draw
+ * calls as possible. A batch only ends when the shader or texture changes, or when the current
+ * region of the {@link StreamingBuffer} is full. Vertices are written straight into the mapped
+ * buffer. Must be used on the render thread.
+ * <p>
+ * Vertex layout: position {@code vec2} at location 0, texture coordinates {@code vec2} at location 1,
+ * a normalized rgba color at location 2 and the array texture layer as a {@code float} at location 3.
+ * Sprites from a {@link TextureAtlas} share its texture, so they batch together whatever image they show.
+ */
+public class SpriteBatch {
+    public static final int DEFAULT_MAX_QUADS = 10_000;
+    public static final int DEFAULT_REGIONS = 3;
+    private static final int VERTEX_BYTES = 2 * Float.BYTES + 2 * Float.BYTES + 4 + Float.BYTES;
+    private static final int QUAD_BYTES = 4 * VERTEX_BYTES;
+    private static final int INDICES_PER_QUAD = 6;
+
+    private final int maxQuads;
+    private final StreamingBuffer vertexBuffer;
+    private final VertexBuffer indexBuffer;
+    private final VAO vao;
+
+    private Shader shader;
+    private int texture;
+    private int textureTarget;
+    private int quads;
+    private long batchOffset = -1;
+    private boolean drawing;
+
+    private int frameBatches;
+    private int frameDrawCalls;
+    private int frameQuads;
+    @Getter private int batches;
+    @Getter private int drawCalls;
+    @Getter private int quadCount;
+
+    public SpriteBatch() {
+        this(DEFAULT_MAX_QUADS, DEFAULT_REGIONS);
+    }
+
+    /**
+     * @param maxQuads quads per region of the streaming buffer, also the most quads a single draw call can take
+     * @param regions  regions of the streaming buffer, how many regions the cpu may fill ahead of the gpu
+     */
+    public SpriteBatch(int maxQuads, int regions) {
+        if (maxQuads <= 0 || (long) maxQuads * QUAD_BYTES > Integer.MAX_VALUE / Math.max(regions, 1)) {
+            throw new IllegalArgumentException("invalid quad count %d".formatted(maxQuads));
+        }
+        this.maxQuads = maxQuads;
+
+        this.vertexBuffer = new StreamingBuffer(GL_ARRAY_BUFFER, maxQuads * QUAD_BYTES, regions);
+        this.indexBuffer = new VertexBuffer(GL_ELEMENT_ARRAY_BUFFER);
+        uploadIndices();
+
+        this.vao = new VAO();
+        this.vao.setVertexBuffer(vertexBuffer);
+        this.vao.setIndexBuffer(indexBuffer);
+        this.vao.attribute(0, 2, GL_FLOAT, false, VERTEX_BYTES, 0);
+        this.vao.attribute(1, 2, GL_FLOAT, false, VERTEX_BYTES, 2 * Float.BYTES);
+        this.vao.attribute(2, 4, GL_UNSIGNED_BYTE, true, VERTEX_BYTES, 4 * Float.BYTES);
+        this.vao.attribute(3, 1, GL_FLOAT, false, VERTEX_BYTES, 4 * Float.BYTES + 4);
+    }
+
+    public void begin() {
+        if (drawing) {
+            throw new IllegalStateException("sprite batch already started");
+        }
+        drawing = true;
+        vertexBuffer.begin();
+        frameBatches = 0;
+        frameDrawCalls = 0;
+        frameQuads = 0;
+        shader = null;
+        texture = 0;
+        textureTarget = GL_TEXTURE_2D;
+    }
+
+    /**
+     * Queues a quad. {@code rgba} is packed as {@code 0xRRGGBBAA}.
+     */
+    public void draw(Shader shader, int texture,
+                     float x, float y, float width, float height,
+                     float u0, float v0, float u1, float v1,
+                     int rgba) {
+        this.draw(shader, texture, GL_TEXTURE_2D, 0, x, y, width, height, u0, v0, u1, v1, rgba);
+    }
+
+    /**
+     * Queues a quad showing a region of an atlas. {@code rgba} is packed as {@code 0xRRGGBBAA}.
+     */
+    public void draw(Shader shader, TextureAtlas atlas, TextureAtlas.Region region,
+                     float x, float y, float width, float height,
+                     int rgba) {
+        this.draw(shader, atlas.getTexture().getPointer(), GL_TEXTURE_2D_ARRAY, region.layer(), x, y, width, height,
+                region.u0(), region.v0(), region.u1(), region.v1(), rgba);
+    }
+
+    private void draw(Shader shader, int texture, int target, int layer,
+                      float x, float y, float width, float height,
+                      float u0, float v0, float u1, float v1,
+                      int rgba) {
+        if (!drawing) {
+            throw new IllegalStateException("sprite batch not started");
+        }
+        if (shader != this.shader || texture != this.texture || target != this.textureTarget) {
+            flush();
+            this.shader = shader;
+            this.texture = texture;
+            this.textureTarget = target;
+            frameBatches++;
+        }
+
+        long offset = vertexBuffer.reserve(QUAD_BYTES);
+        if (offset < 0) {
+            flush();
+            vertexBuffer.end();
+            vertexBuffer.begin();
+            offset = vertexBuffer.reserve(QUAD_BYTES);
+        }
+        if (batchOffset < 0) {
+            batchOffset = offset;
+        }
+
+        final byte r = (byte) (rgba >>> 24);
+        final byte g = (byte) (rgba >>> 16);
+        final byte b = (byte) (rgba >>> 8);
+        final byte a = (byte) rgba;
+        final float x1 = x + width;
+        final float y1 = y + height;
+        final float l = layer;
+        final var vertices = vertexBuffer.memory();
+        offset = putVertex(vertices, offset, x, y, u0, v0, r, g, b, a, l);
+        offset = putVertex(vertices, offset, x1, y, u1, v0, r, g, b, a, l);
+        offset = putVertex(vertices, offset, x1, y1, u1, v1, r, g, b, a, l);
+        putVertex(vertices, offset, x, y1, u0, v1, r, g, b, a, l);
+        quads++;
+        frameQuads++;
+    }
+
+    public void end() {
+        if (!drawing) {
+            throw new IllegalStateException("sprite batch not started");
+        }
+        flush();
+        vertexBuffer.end();
+        drawing = false;
+        batches = frameBatches;
+        drawCalls = frameDrawCalls;
+        quadCount = frameQuads;
+    }
+
+    public void cleanUp() {
+        vao.cleanUp();
+        vertexBuffer.cleanUp();
+        indexBuffer.cleanUp();
+    }
+
+    private void flush() {
+        if (quads == 0) {
+            return;
+        }
+        vertexBuffer.flush();
+
+        shader.bind();
+        GlState.current().bindTexture(0, textureTarget, texture);
+        vao.bind();
+        glDrawElementsBaseVertex(GL_TRIANGLES, quads * INDICES_PER_QUAD, GL_UNSIGNED_INT, 0, (int) (batchOffset / VERTEX_BYTES));
+        frameDrawCalls++;
+        quads = 0;
+        batchOffset = -1;
+    }
+
+    private static long putVertex(ByteBuffer vertices, long address, float x, float y, float u, float v,
+                                  byte r, byte g, byte b, byte a, float layer) {
+        final int offset = (int) address;
+        vertices.putFloat(offset, x);
+        vertices.putFloat(offset + 4, y);
+        vertices.putFloat(offset + 8, u);
+        vertices.putFloat(offset + 12, v);
+        vertices.put(offset + 16, r);
+        vertices.put(offset + 17, g);
+        vertices.put(offset + 18, b);
+        vertices.put(offset + 19, a);
+        vertices.putFloat(offset + 20, layer);
+        return offset + VERTEX_BYTES;
+    }
+
+    private void uploadIndices() {
+        final var indices = MemoryUtil.memAlloc(maxQuads * INDICES_PER_QUAD * Integer.BYTES);
+        try {
+            for (int quad = 0, vertex = 0; quad < maxQuads; quad++, vertex += 4) {
+                indices.putInt(vertex)
+                        .putInt(vertex + 1)
+                        .putInt(vertex + 2)
+                        .putInt(vertex + 2)
+                        .putInt(vertex + 3)
+                        .putInt(vertex);
+            }
+            indices.flip();
+            indexBuffer.allocate(indices.remaining(), GL_STATIC_DRAW);
+            indexBuffer.upload(0, indices);
+        } finally {
+            MemoryUtil.memFree(indices);
+        }
+    }
+}
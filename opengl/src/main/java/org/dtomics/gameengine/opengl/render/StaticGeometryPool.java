@@ -0,0 +1,205 @@
+package org.dtomics.gameengine.opengl.render;
+
+import lombok.Getter;
+import org.dtomics.gameengine.opengl.primitives.Shader;
+import org.dtomics.gameengine.opengl.primitives.StreamingBuffer;
+import org.dtomics.gameengine.opengl.primitives.VAO;
+import org.dtomics.gameengine.opengl.primitives.VertexBuffer;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11C.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11C.GL_UNSIGNED_INT;
+import static org.lwjgl.opengl.GL15C.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL40C.GL_DRAW_INDIRECT_BUFFER;
+import static org.lwjgl.opengl.GL43C.glMultiDrawElementsIndirect;
+
+/**
+ * Packs static meshes into one shared vertex and index buffer and draws any subset of them with a
+ * single {@code glMultiDrawElementsIndirect}. Geometry is uploaded once by {@link #add}, per frame only
+ * the indirect commands of the visible draws are written, straight into a {@link StreamingBuffer}.
+ * <p>
+ * Each command carries a caller chosen draw id as its base instance. The id reaches the vertex shader
+ * as an unsigned integer attribute at {@code drawIdLocation}, to index per-draw data such as transforms
+ * in a uniform or storage buffer. Vertex attributes are described on {@link #getVao()}. Must be used on
+ * the render thread.
+ */
+public class StaticGeometryPool {
+    public static final int DEFAULT_REGIONS = 3;
+    private static final int COMMAND_INTS = 5;
+    private static final int COMMAND_BYTES = COMMAND_INTS * Integer.BYTES;
+    private static final int DEFAULT_MESHES = 64;
+
+    private final int vertexStride;
+    private final int maxVertices;
+    private final int maxIndices;
+    private final int maxDraws;
+
+    private final VertexBuffer vertexBuffer;
+    private final VertexBuffer indexBuffer;
+    private final VertexBuffer drawIdBuffer;
+    private final StreamingBuffer commandBuffer;
+    @Getter private final VAO vao;
+
+    private int[] firstIndices = new int[DEFAULT_MESHES];
+    private int[] indexCounts = new int[DEFAULT_MESHES];
+    private int[] baseVertices = new int[DEFAULT_MESHES];
+    @Getter private int meshCount;
+    private int vertices;
+    private int indices;
+
+    private long commandOffset = -1;
+    private int frameDraws;
+    private boolean drawing;
+    @Getter private int drawCount;
+
+    /**
+     * @param vertexStride   bytes per vertex
+     * @param maxDraws       most draws per frame, also the largest draw id
+     * @param drawIdLocation attribute location the draw id is bound to
+     */
+    public StaticGeometryPool(int vertexStride, int maxVertices, int maxIndices, int maxDraws, int drawIdLocation) {
+        if (vertexStride <= 0 || maxVertices <= 0 || maxIndices <= 0 || maxDraws <= 0
+                || (long) maxDraws * COMMAND_BYTES * DEFAULT_REGIONS > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid pool of %d vertices of %d bytes, %d indices and %d draws"
+                    .formatted(maxVertices, vertexStride, maxIndices, maxDraws));
+        }
+        this.vertexStride = vertexStride;
+        this.maxVertices = maxVertices;
+        this.maxIndices = maxIndices;
+        this.maxDraws = maxDraws;
+
+        this.vertexBuffer = new VertexBuffer(GL_ARRAY_BUFFER);
+        this.vertexBuffer.allocate((long) maxVertices * vertexStride, GL_STATIC_DRAW);
+        this.indexBuffer = new VertexBuffer(GL_ELEMENT_ARRAY_BUFFER);
+        this.indexBuffer.allocate((long) maxIndices * Integer.BYTES, GL_STATIC_DRAW);
+        this.drawIdBuffer = new VertexBuffer(GL_ARRAY_BUFFER);
+        uploadDrawIds();
+        this.commandBuffer = new StreamingBuffer(GL_DRAW_INDIRECT_BUFFER, maxDraws * COMMAND_BYTES, DEFAULT_REGIONS);
+
+        this.vao = new VAO();
+        this.vao.setVertexBuffer(vertexBuffer);
+        this.vao.setIndexBuffer(indexBuffer);
+        this.vao.setInstanceBuffer(drawIdBuffer);
+        this.vao.instanceIntegerAttribute(drawIdLocation, 1, GL_UNSIGNED_INT, Integer.BYTES, 0, 1);
+    }
+
+    /**
+     * Appends a mesh to the shared buffers.
+     *
+     * @param vertices remaining bytes are whole vertices of {@code vertexStride} bytes
+     * @param indices  remaining bytes are unsigned int indices relative to the first vertex of this mesh
+     * @return id of the mesh for {@link #draw(int, int)}
+     */
+    public int add(ByteBuffer vertices, ByteBuffer indices) {
+        if (vertices.remaining() % vertexStride != 0 || indices.remaining() % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("mesh data is not made of whole vertices and indices");
+        }
+        final int vertexCount = vertices.remaining() / vertexStride;
+        final int indexCount = indices.remaining() / Integer.BYTES;
+        if (this.vertices + vertexCount > maxVertices || this.indices + indexCount > maxIndices) {
+            throw new IllegalStateException("geometry pool is full. %d of %d vertices and %d of %d indices used"
+                    .formatted(this.vertices, maxVertices, this.indices, maxIndices));
+        }
+        if (meshCount == firstIndices.length) {
+            firstIndices = Arrays.copyOf(firstIndices, meshCount << 1);
+            indexCounts = Arrays.copyOf(indexCounts, meshCount << 1);
+            baseVertices = Arrays.copyOf(baseVertices, meshCount << 1);
+        }
+        vertexBuffer.upload((long) this.vertices * vertexStride, vertices);
+        indexBuffer.upload((long) this.indices * Integer.BYTES, indices);
+        firstIndices[meshCount] = this.indices;
+        indexCounts[meshCount] = indexCount;
+        baseVertices[meshCount] = this.vertices;
+        this.vertices += vertexCount;
+        this.indices += indexCount;
+        return meshCount++;
+    }
+
+    public void begin() {
+        if (drawing) {
+            throw new IllegalStateException("geometry pool already started");
+        }
+        drawing = true;
+        commandBuffer.begin();
+        commandOffset = -1;
+        frameDraws = 0;
+    }
+
+    /**
+     * Queues a draw of a mesh for this frame.
+     *
+     * @param drawId index of the per-draw data, between 0 and {@code maxDraws - 1}
+     */
+    public void draw(int mesh, int drawId) {
+        if (!drawing) {
+            throw new IllegalStateException("geometry pool not started");
+        }
+        if (mesh < 0 || mesh >= meshCount) {
+            throw new IllegalArgumentException("invalid mesh %d. pool has %d meshes".formatted(mesh, meshCount));
+        }
+        if (drawId < 0 || drawId >= maxDraws) {
+            throw new IllegalArgumentException("invalid draw id %d. should be less than %d".formatted(drawId, maxDraws));
+        }
+        final long offset = commandBuffer.reserve(COMMAND_BYTES);
+        if (offset < 0) {
+            throw new IllegalStateException("more than %d draws queued this frame".formatted(maxDraws));
+        }
+        if (commandOffset < 0) {
+            commandOffset = offset;
+        }
+        final var commands = commandBuffer.memory();
+        final int index = (int) offset;
+        commands.putInt(index, indexCounts[mesh]);
+        commands.putInt(index + 4, 1);
+        commands.putInt(index + 8, firstIndices[mesh]);
+        commands.putInt(index + 12, baseVertices[mesh]);
+        commands.putInt(index + 16, drawId);
+        frameDraws++;
+    }
+
+    /**
+     * Submits every draw queued since {@link #begin()} with one indirect draw call.
+     */
+    public void end(Shader shader) {
+        if (!drawing) {
+            throw new IllegalStateException("geometry pool not started");
+        }
+        drawing = false;
+        drawCount = frameDraws;
+        if (frameDraws > 0) {
+            commandBuffer.flush();
+            shader.bind();
+            vao.bind();
+            commandBuffer.bind();
+            glMultiDrawElementsIndirect(GL_TRIANGLES, GL_UNSIGNED_INT, commandOffset, frameDraws, COMMAND_BYTES);
+        }
+        commandBuffer.end();
+    }
+
+    public void cleanUp() {
+        vao.cleanUp();
+        vertexBuffer.cleanUp();
+        indexBuffer.cleanUp();
+        drawIdBuffer.cleanUp();
+        commandBuffer.cleanUp();
+    }
+
+    private void uploadDrawIds() {
+        final var ids = MemoryUtil.memAlloc(maxDraws * Integer.BYTES);
+        try {
+            for (int i = 0; i < maxDraws; i++) {
+                ids.putInt(i);
+            }
+            ids.flip();
+            drawIdBuffer.allocate(ids.remaining(), GL_STATIC_DRAW);
+            drawIdBuffer.upload(0, ids);
+        } finally {
+            MemoryUtil.memFree(ids);
+        }
+    }
+}
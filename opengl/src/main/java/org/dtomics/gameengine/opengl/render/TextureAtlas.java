@@ -0,0 +1,153 @@
+package org.dtomics.gameengine.opengl.render;
+
+import lombok.Getter;
+import org.dtomics.gameengine.opengl.primitives.Texture;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL11C.GL_RGBA;
+import static org.lwjgl.opengl.GL11C.GL_RGBA8;
+import static org.lwjgl.opengl.GL11C.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL44C.glClearTexImage;
+
+/**
+ * Packs small rgba images into the layers of one square array texture at runtime, so sprites from
+ * different images share a single texture bind. Every layer has its own {@link SkylinePacker}, an
+ * image goes into the first layer it fits. Images are padded with transparent texels so filtering
+ * and the lower mipmap levels do not bleed neighbours in. Must be used on the render thread.
+ */
+public class TextureAtlas {
+    public static final int DEFAULT_PADDING = 2;
+
+    /**
+     * Where an image ended up, texture coordinates are normalized and the layer is the array index to sample.
+     */
+    public record Region(int layer, int x, int y, int width, int height, float u0, float v0, float u1, float v1) {
+    }
+
+    @Getter private final Texture texture;
+    private final SkylinePacker[] packers;
+    private final int size;
+    private final int padding;
+    private boolean mipmapsDirty;
+    @Getter private int regions;
+
+    public TextureAtlas(int size, int layers, boolean mipmaps) {
+        this(size, layers, mipmaps, DEFAULT_PADDING);
+    }
+
+    public TextureAtlas(int size, int layers, boolean mipmaps, int padding) {
+        if (padding < 0) {
+            throw new IllegalArgumentException("invalid padding %d. should not be negative".formatted(padding));
+        }
+        this.size = size;
+        this.padding = padding;
+        this.texture = Texture.createArray(size, size, layers, mipmaps ? Texture.levelsFor(size, size) : 1, GL_RGBA8);
+        glClearTexImage(texture.getPointer(), 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        this.packers = new SkylinePacker[layers];
+        for (int i = 0; i < layers; i++) {
+            packers[i] = new SkylinePacker(size, size);
+        }
+    }
+
+    /**
+     * Packs and uploads an image of tightly packed rgba8 texels.
+     *
+     * @return region of the image, or null if no layer has room for it
+     */
+    public Region add(int width, int height, ByteBuffer rgba) {
+        if ((long) width * height * 4 > rgba.remaining()) {
+            throw new IllegalArgumentException("image of %dx%d needs %d bytes. got %d"
+                    .formatted(width, height, (long) width * height * 4, rgba.remaining()));
+        }
+        final var region = reserve(width, height);
+        if (region != null) {
+            texture.upload(region.x(), region.y(), region.layer(), width, height, GL_RGBA, GL_UNSIGNED_BYTE, rgba);
+            mipmapsDirty = true;
+        }
+        return region;
+    }
+
+    /**
+     * Packs an image without uploading it, for texels that arrive later, e.g. through
+     * {@link org.dtomics.gameengine.opengl.primitives.PrimitiveFactory#image}. Call {@link #invalidateMipmaps()}
+     * once they were uploaded.
+     *
+     * @return region of the image, or null if no layer has room for it
+     */
+    public Region reserve(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("invalid image size %dx%d".formatted(width, height));
+        }
+        for (int layer = 0; layer < packers.length; layer++) {
+            final long position = packers[layer].insert(width + 2 * padding, height + 2 * padding);
+            if (position < 0) {
+                continue;
+            }
+            final int x = (int) (position >>> 32) + padding;
+            final int y = (int) position + padding;
+            regions++;
+            return new Region(layer, x, y, width, height,
+                    (float) x / size, (float) y / size,
+                    (float) (x + width) / size, (float) (y + height) / size);
+        }
+        return null;
+    }
+
+    /**
+     * Marks the mipmaps stale after texels of a {@link #reserve reserved} region were uploaded.
+     */
+    public void invalidateMipmaps() {
+        mipmapsDirty = true;
+    }
+
+    /**
+     * Regenerates the mipmaps if images were added since the last call. Call once after adding a batch of images
+     * rather than after each one.
+     */
+    public void updateMipmaps() {
+        if (mipmapsDirty) {
+            texture.generateMipmaps();
+            mipmapsDirty = false;
+        }
+    }
+
+    public int getLayersInUse() {
+        int used = 0;
+        for (final var packer : packers) {
+            if (!packer.isEmpty()) used++;
+        }
+        return used;
+    }
+
+    /**
+     * @return texels covered by images and their padding, over all texels of the layers in use
+     */
+    public double getOccupancy() {
+        long used = 0;
+        for (final var packer : packers) {
+            used += packer.getUsedArea();
+        }
+        return ratio(used);
+    }
+
+    /**
+     * @return texels trapped below the skyline that no image can use anymore, over all texels of the layers in use
+     */
+    public double getWaste() {
+        long wasted = 0;
+        for (final var packer : packers) {
+            wasted += packer.getWastedArea();
+        }
+        return ratio(wasted);
+    }
+
+    public void cleanUp() {
+        texture.cleanUp();
+    }
+
+    private double ratio(long texels) {
+        final int layers = getLayersInUse();
+        return layers == 0 ? 0 : (double) texels / ((long) size * size * layers);
+    }
+}
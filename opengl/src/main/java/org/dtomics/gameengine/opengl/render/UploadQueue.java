@@ -0,0 +1,78 @@
+package org.dtomics.gameengine.opengl.render;
+
+import lombok.Getter;
+import org.dtomics.gameengine.specification.concurrent.MpscRingBuffer;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Uploads staged by other threads and applied by the render thread under a byte budget per frame.
+ * Uploads larger than the budget are spread over several frames, so streaming in a level costs a
+ * bounded slice of every frame instead of one long hitch. Uploads are applied in submission order.
+ */
+public class UploadQueue {
+    public static final long DEFAULT_BUDGET = 4L << 20;
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * A staged upload. Only {@link #step(long)} and {@link #fail(Throwable)} touch gl, both run on the render thread.
+     */
+    public interface Upload {
+        /**
+         * Uploads at most {@code budget} bytes.
+         *
+         * @return bytes uploaded
+         */
+        long step(long budget);
+
+        boolean isDone();
+
+        /**
+         * Releases everything the upload holds after {@link #step(long)} threw.
+         */
+        void fail(Throwable cause);
+    }
+
+    private final MpscRingBuffer<Upload> incoming = new MpscRingBuffer<>(DEFAULT_CAPACITY, MpscRingBuffer.BackpressurePolicy.GROW);
+    private final ArrayDeque<Upload> active = new ArrayDeque<>();
+    private final Consumer<Upload> activate = active::addLast;
+    private volatile long budget = DEFAULT_BUDGET;
+
+    @Getter private volatile long frameBytes;
+    @Getter private volatile int pending;
+
+    public void submit(Upload upload) {
+        incoming.offer(upload);
+    }
+
+    public void setBudget(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("invalid upload budget %d. should be greater than zero".formatted(bytes));
+        }
+        this.budget = bytes;
+    }
+
+    /**
+     * Applies uploads until the budget of this frame is used up. Must be called once per frame on the render thread.
+     */
+    public void apply() {
+        incoming.drain(activate);
+        long remaining = budget;
+        Upload upload;
+        while (remaining > 0 && (upload = active.peekFirst()) != null) {
+            try {
+                remaining -= upload.step(remaining);
+            } catch (RuntimeException e) {
+                active.pollFirst();
+                upload.fail(e);
+                continue;
+            }
+            if (upload.isDone()) {
+                active.pollFirst();
+            }
+        }
+        frameBytes = budget - remaining;
+        pending = active.size() + incoming.size();
+    }
+}
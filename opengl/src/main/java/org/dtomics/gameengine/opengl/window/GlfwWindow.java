@@ -1,34 +1,56 @@
 package org.dtomics.gameengine.opengl.window;
 
 import lombok.NonNull;
-import org.dtomics.gameengine.specification.window.Configuration;
+import org.dtomics.gameengine.specification.events.EventBus;
+import org.dtomics.gameengine.specification.events.EventType;
+import org.dtomics.gameengine.specification.events.InputEventQueue;
+import org.dtomics.gameengine.specification.events.InputEvents;
+import org.dtomics.gameengine.specification.window.WindowConfig;
 import org.dtomics.gameengine.specification.window.Window;
+import org.dtomics.gameengine.specification.window.WindowState;
 import org.lwjgl.glfw.*;
+import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
 
+import java.time.Duration;
+
 import static org.lwjgl.glfw.Callbacks.glfwFreeCallbacks;
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.system.MemoryUtil.NULL;
 
+/**
+ * Glfw backed window. Every glfw input callback only encodes its event into {@link #events()}. Handlers
+ * registered with {@link #on(EventType, Object)} run on {@link #dispatchEvents()}, not inside
+ * {@link #pollEvents()}.
+ * <p>
+ * Size, vsync and fullscreen changes are published as {@link WindowState} snapshots, the configuration
+ * only holds what was requested. Applying the swap interval and viewport is left to the render thread,
+ * which owns the context.
+ */
 public class GlfwWindow implements Window {
 
     private long pointer;
     private long monitor;
     private boolean created;
 
-    private Configuration configuration;
+    private WindowConfig configuration;
+    private volatile WindowState state;
+    private final InputEventQueue events = new InputEventQueue();
+    private final EventBus bus = new EventBus();
 
     @Override
-    public  <T,C> void on(@NonNull Class<T> event, @NonNull C callback) {
-        switch (callback) {
-            case GLFWKeyCallbackI callbackI -> glfwSetKeyCallback(this.pointer, callbackI);
-            case GLFWFramebufferSizeCallbackI callbackI -> glfwSetFramebufferSizeCallback(this.pointer, callbackI);
-            case GLFWCursorPosCallbackI callbackI -> glfwSetCursorPosCallback(this.pointer, callbackI);
-            case GLFWMouseButtonCallbackI callbackI -> glfwSetMouseButtonCallback(this.pointer, callbackI);
-            case GLFWScrollCallbackI callbackI -> glfwSetScrollCallback(this.pointer, callbackI);
-            case GLFWWindowCloseCallbackI callbackI -> glfwSetWindowCloseCallback(this.pointer, callbackI);
-            default -> throw new IllegalStateException("event %s not supported".formatted(event.getCanonicalName()));
-        }
+    public <H> void on(@NonNull EventType<H> type, @NonNull H handler) {
+        bus.subscribe(type, handler);
+    }
+
+    @Override
+    public InputEventQueue events() {
+        return events;
+    }
+
+    @Override
+    public EventBus bus() {
+        return bus;
     }
 
     @Override
@@ -53,21 +75,14 @@ public class GlfwWindow implements Window {
             throw new IllegalStateException("failed to create glfw window");
         }
 
-        if (config().isResizable()) {
-            glfwSetFramebufferSizeCallback(
-                    this.pointer,
-                    (window, width, height) -> {
-                        config()
-                                .setWidth(width)
-                                .setHeight(height);
-                    }
-            );
+        try (final var stack = MemoryStack.stackPush()) {
+            final var width = stack.mallocInt(1);
+            final var height = stack.mallocInt(1);
+            glfwGetFramebufferSize(this.pointer, width, height);
+            this.state = WindowState.of(config()).withSize(width.get(0), height.get(0));
         }
+        this.installCallbacks();
         this.keepToCenter();
-        if (config().isVsync()) {
-
-            glfwSwapInterval(1);
-        }
         glfwShowWindow(this.pointer);
         this.created = true;
     }
@@ -78,6 +93,7 @@ public class GlfwWindow implements Window {
             return;
         }
         glfwSetWindowShouldClose(this.pointer, true);
+        glfwPostEmptyEvent();
     }
 
     @Override
@@ -121,13 +137,43 @@ public class GlfwWindow implements Window {
     }
 
     @Override
-    public Configuration config() {
+    public void waitEvents(@NonNull Duration timeout) {
+        if (!created) {
+            return;
+        }
+        if (timeout.isZero() || timeout.isNegative()) {
+            glfwPollEvents();
+            return;
+        }
+        glfwWaitEventsTimeout(timeout.toNanos() / 1e9);
+    }
+
+    @Override
+    public void wakeUp() {
+        if (!created) {
+            return;
+        }
+        glfwPostEmptyEvent();
+    }
+
+    @Override
+    public WindowState state() {
+        final var state = this.state;
+        return state != null ? state : WindowState.of(config());
+    }
+
+    @Override
+    public WindowConfig config() {
         return getConfigOrDefaultConfig();
     }
 
+    /**
+     * Applies the configuration to the window, must be called on the main thread.
+     */
     @Override
-    public void config(Configuration configuration) {
-        if (this.created && this.configuration != null) {
+    public void config(WindowConfig configuration) {
+        this.configuration = configuration;
+        if (this.created) {
             glfwSetWindowSize(
                     this.pointer,
                     config().getWidth(),
@@ -138,17 +184,31 @@ public class GlfwWindow implements Window {
 //            glfwSetWindowAttrib(this.pointer, GLFW_MAXIMIZED, getGlfwBoolean(config().isMaximized()));
             glfwSetWindowAttrib(this.pointer, GLFW_RESIZABLE, getGlfwBoolean(config().isResizable()));
             setFullScreen(config().isFullscreen());
-            glfwSwapInterval(config().isVsync() ? 1 : 0);
+            publishConfig();
         }
+    }
 
-        this.configuration = configuration;
+    private void installCallbacks() {
+        glfwSetKeyCallback(this.pointer, (window, key, scancode, action, mods) ->
+                events.offer(InputEvents.key(key, scancode, action, mods)));
+        glfwSetMouseButtonCallback(this.pointer, (window, button, action, mods) ->
+                events.offer(InputEvents.mouseButton(button, action, mods)));
+        glfwSetCursorPosCallback(this.pointer, (window, x, y) ->
+                events.offer(InputEvents.cursor(x, y)));
+        glfwSetScrollCallback(this.pointer, (window, x, y) ->
+                events.offer(InputEvents.scroll(x, y)));
+        glfwSetFramebufferSizeCallback(this.pointer, (window, width, height) -> {
+            publishSize(width, height);
+            events.offer(InputEvents.resize(width, height));
+        });
+        glfwSetWindowCloseCallback(this.pointer, window -> events.offer(InputEvents.close()));
     }
 
-    private Configuration getConfigOrDefaultConfig() {
+    private WindowConfig getConfigOrDefaultConfig() {
         if (this.configuration != null) {
             return this.configuration;
         }
-        return this.configuration = Configuration.builder()
+        return this.configuration = WindowConfig.builder()
                 .vsync(true)
                 .fullscreen(false)
                 .resizable(true)
@@ -161,13 +221,10 @@ public class GlfwWindow implements Window {
         if (fullScreen == this.isFullScreen()) {
             return;
         }
-        final var vidMode = glfwGetVideoMode(this.pointer);
+        final var vidMode = glfwGetVideoMode(this.monitor);
         if (vidMode == null) {
             return;
         }
-        config()
-                .setWidth(vidMode.width())
-                .setHeight(vidMode.height());
         if (fullScreen) {
             glfwSetWindowMonitor(
                     this.pointer,
@@ -187,6 +244,18 @@ public class GlfwWindow implements Window {
         );
     }
 
+    /**
+     * Snapshots are published from the main thread, synchronized in case the configuration is changed from
+     * another one.
+     */
+    private synchronized void publishSize(int width, int height) {
+        this.state = state().withSize(width, height);
+    }
+
+    private synchronized void publishConfig() {
+        this.state = state().withVsync(config().isVsync()).withFullscreen(isFullScreen());
+    }
+
     private boolean isFullScreen() {
         return glfwGetWindowMonitor(this.pointer) != NULL;
     }
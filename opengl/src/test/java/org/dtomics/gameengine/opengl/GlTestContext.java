@@ -0,0 +1,65 @@
+package org.dtomics.gameengine.opengl;
+
+import org.dtomics.gameengine.opengl.primitives.GlState;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.system.MemoryUtil;
+
+import static org.junit.Assume.assumeTrue;
+import static org.lwjgl.glfw.GLFW.*;
+
+/**
+ * Hidden window with a current OpenGL 4.5 core context for tests. Tests using it are skipped when no
+ * context can be created, on a display-less machine run them under Xvfb with Mesa's software
+ * rasterizer, e.g. {@code LIBGL_ALWAYS_SOFTWARE=1 xvfb-run mvn test}.
+ */
+public final class GlTestContext {
+    private static long window;
+
+    private GlTestContext() {
+    }
+
+    /**
+     * Makes a context current on the calling thread, or skips the calling test class.
+     */
+    public static void require() {
+        if (window == 0) {
+            window = create();
+        }
+        assumeTrue("no OpenGL 4.5 context available", window != 0);
+        glfwMakeContextCurrent(window);
+        GL.createCapabilities();
+        // the cached bindings may be left over from a context an earlier test class destroyed
+        GlState.current().invalidate();
+    }
+
+    public static void release() {
+        if (window == 0) {
+            return;
+        }
+        GL.setCapabilities(null);
+        glfwMakeContextCurrent(MemoryUtil.NULL);
+        glfwDestroyWindow(window);
+        glfwTerminate();
+        window = 0;
+    }
+
+    private static long create() {
+        try {
+            if (!glfwInit()) {
+                return 0;
+            }
+            glfwDefaultWindowHints();
+            glfwWindowHint(GLFW_VISIBLE, GLFW_FALSE);
+            glfwWindowHint(GLFW_CONTEXT_VERSION_MAJOR, 4);
+            glfwWindowHint(GLFW_CONTEXT_VERSION_MINOR, 5);
+            glfwWindowHint(GLFW_OPENGL_PROFILE, GLFW_OPENGL_CORE_PROFILE);
+            final long created = glfwCreateWindow(1, 1, "test", MemoryUtil.NULL, MemoryUtil.NULL);
+            if (created == MemoryUtil.NULL) {
+                glfwTerminate();
+            }
+            return created;
+        } catch (UnsatisfiedLinkError | IllegalStateException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MeshBuilderTest {
+    private static final VertexLayout LAYOUT = VertexLayout.builder()
+            .floats(0, 3)
+            .normalizedBytes(1, 4)
+            .build();
+
+    private NativeBufferPool pool;
+    private MeshBuilder mesh;
+
+    @Before
+    public void setUp() {
+        pool = new NativeBufferPool(NativeBufferPool.DEFAULT_RETAINED_PER_CLASS);
+        mesh = new MeshBuilder(LAYOUT, pool);
+    }
+
+    @After
+    public void tearDown() {
+        mesh.close();
+        pool.trim();
+    }
+
+    @Test
+    public void vertexWithTheLayoutStrideIsAccepted() {
+        assertEquals(0, mesh.vertex().put(1f, 2f, 3f).color(0x11223344).endVertex());
+        assertEquals(1, mesh.vertex().put(4f, 5f, 6f).color(0x55667788).endVertex());
+
+        final var vertices = mesh.vertices();
+        assertEquals(2 * LAYOUT.getStride(), vertices.remaining());
+        assertEquals(4f, vertices.getFloat(LAYOUT.getStride()), 0f);
+        assertEquals(0x55, vertices.get(LAYOUT.getStride() + 12) & 0xFF);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shortVertexIsRejected() {
+        mesh.vertex().put(1f, 2f, 3f).endVertex();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void longVertexIsRejected() {
+        mesh.vertex().put(1f, 2f, 3f).color(0).put(1f);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void attributeOutsideOfAVertexIsRejected() {
+        mesh.put(1f, 2f, 3f);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unfinishedVertexIsRejected() {
+        mesh.vertex().put(1f, 2f, 3f);
+        mesh.vertex();
+    }
+
+    @Test
+    public void growingKeepsWrittenVerticesAndIndices() {
+        final int count = 5000;
+        for (int i = 0; i < count; i++) {
+            mesh.vertex().put(i, -i, 0.5f).color(i).endVertex();
+            mesh.index(count - i);
+        }
+        assertEquals(count, mesh.getVertexCount());
+        assertEquals(count, mesh.getIndexCount());
+
+        final var vertices = mesh.vertices();
+        final var indices = mesh.indices();
+        final int stride = LAYOUT.getStride();
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, vertices.getFloat(i * stride), 0f);
+            assertEquals(-i, vertices.getFloat(i * stride + 4), 0f);
+            assertEquals((byte) i, vertices.get(i * stride + 15));
+            assertEquals(count - i, indices.getInt(i * Integer.BYTES));
+        }
+    }
+
+    @Test
+    public void resetKeepsTheBuilderUsable() {
+        mesh.vertex().put(1f, 2f, 3f).color(0).endVertex();
+        mesh.triangle(0, 0, 0);
+        mesh.reset();
+
+        assertEquals(0, mesh.getVertexCount());
+        assertEquals(0, mesh.getIndexCount());
+        assertEquals(0, mesh.vertex().put(1f, 2f, 3f).color(0).endVertex());
+    }
+
+    @Test
+    public void useAfterCloseIsRejected() {
+        mesh.close();
+        mesh.close();
+        assertClosed(() -> mesh.vertex());
+        assertClosed(() -> mesh.index(0));
+        assertClosed(() -> mesh.vertices());
+        assertClosed(() -> mesh.indices());
+    }
+
+    @Test
+    public void openVertexIsRejectedAfterClose() {
+        mesh.vertex();
+        mesh.close();
+        assertClosed(() -> mesh.put(1f));
+    }
+
+    private static void assertClosed(Runnable use) {
+        try {
+            use.run();
+            fail("expected the closed builder to throw");
+        } catch (IllegalStateException expected) {
+            assertEquals("mesh builder is closed", expected.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NameTableTest {
+
+    @Test
+    public void findsEveryNameAndMissesUnknownOnes() {
+        final var table = new NameTable(100);
+        for (int i = 0; i < 100; i++) {
+            table.put("uniform" + i, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, table.get("uniform" + i));
+        }
+        assertEquals(NameTable.MISSING, table.get("missing"));
+    }
+
+    @Test
+    public void collidingNamesAreKeptApart() {
+        // "Aa" and "BB" share a hash code
+        final var table = new NameTable(2);
+        table.put("Aa", 1);
+        table.put("BB", 2);
+        table.put("Aa", 3);
+        assertEquals(3, table.get("Aa"));
+        assertEquals(2, table.get("BB"));
+    }
+}
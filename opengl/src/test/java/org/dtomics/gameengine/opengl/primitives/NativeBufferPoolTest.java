@@ -0,0 +1,97 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import org.junit.After;
+import org.junit.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class NativeBufferPoolTest {
+    private final NativeBufferPool pool = new NativeBufferPool(2);
+
+    @After
+    public void tearDown() {
+        pool.trim();
+    }
+
+    @Test
+    public void sizesAreRoundedUpToTheirClass() {
+        assertAcquired(0, 256);
+        assertAcquired(1, 256);
+        assertAcquired(256, 256);
+        assertAcquired(257, 512);
+        assertAcquired(1000, 1024);
+        assertAcquired(1 << 20, 1 << 20);
+        assertAcquired((1 << 20) + 1, 1 << 21);
+    }
+
+    @Test
+    public void releasedBufferIsReusedBySameClass() {
+        final var first = pool.acquire(300);
+        pool.release(first);
+        final var second = pool.acquire(500);
+
+        assertSame(first, second);
+        assertEquals(500, second.limit());
+        assertEquals(0, second.position());
+        assertEquals(1, pool.getAllocated());
+        assertEquals(1, pool.getReused());
+        pool.release(second);
+    }
+
+    @Test
+    public void onlyRetainedPerClassBuffersAreKept() {
+        final var buffers = new ByteBuffer[3];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = pool.acquire(64);
+        }
+        for (final var buffer : buffers) {
+            pool.release(buffer);
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = pool.acquire(64);
+        }
+
+        assertEquals(2, pool.getReused());
+        assertEquals(4, pool.getAllocated());
+        for (final var buffer : buffers) {
+            pool.release(buffer);
+        }
+    }
+
+    @Test
+    public void foreignBuffersAreRejected() {
+        assertRejected(MemoryUtil.memAlloc(300));
+        assertRejected(MemoryUtil.memAlloc(128));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSizeIsRejected() {
+        pool.acquire(-1);
+    }
+
+    private void assertAcquired(int bytes, int capacity) {
+        final var buffer = pool.acquire(bytes);
+        try {
+            assertEquals(capacity, buffer.capacity());
+            assertEquals(bytes, buffer.limit());
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    private void assertRejected(ByteBuffer foreign) {
+        try {
+            pool.release(foreign);
+            fail("expected a buffer of %d bytes to be rejected".formatted(foreign.capacity()));
+        } catch (IllegalArgumentException expected) {
+            // not pooled
+        } finally {
+            MemoryUtil.memFree(foreign);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import org.dtomics.gameengine.opengl.GlTestContext;
+import org.dtomics.gameengine.opengl.render.UploadQueue;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.lwjgl.opengl.GL11C.GL_RGBA;
+import static org.lwjgl.opengl.GL11C.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL15C.GL_ELEMENT_ARRAY_BUFFER_BINDING;
+import static org.lwjgl.opengl.GL30C.GL_RGBA8;
+import static org.lwjgl.opengl.GL45C.glGetNamedBufferSubData;
+import static org.lwjgl.opengl.GL45C.glGetTextureImage;
+import static org.lwjgl.opengl.GL45C.glGetVertexArrayi;
+
+public class PrimitiveFactoryTest {
+    private static final VertexLayout LAYOUT = VertexLayout.builder().floats(0, 3).build();
+
+    private UploadQueue uploads;
+    private ExecutorService decoders;
+    private PrimitiveFactory factory;
+
+    @BeforeClass
+    public static void setUpContext() {
+        GlTestContext.require();
+    }
+
+    @AfterClass
+    public static void tearDownContext() {
+        GlTestContext.release();
+    }
+
+    @Before
+    public void setUp() {
+        uploads = new UploadQueue();
+        decoders = Executors.newSingleThreadExecutor();
+        factory = new PrimitiveFactory(uploads, decoders);
+    }
+
+    @After
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    public void twoIndexedMeshesStagedInOneFrameKeepTheirOwnIndices() throws Exception {
+        final var first = factory.mesh(LAYOUT, mesh -> triangle(mesh, 0));
+        final var second = factory.mesh(LAYOUT, mesh -> triangle(mesh, 1));
+        awaitDecoders();
+
+        uploads.apply();
+        assertTrue(first.isDone() && second.isDone());
+        final var a = first.get();
+        final var b = second.get();
+
+        final int indicesOfA = glGetVertexArrayi(a.getPointer(), GL_ELEMENT_ARRAY_BUFFER_BINDING);
+        final int indicesOfB = glGetVertexArrayi(b.getPointer(), GL_ELEMENT_ARRAY_BUFFER_BINDING);
+        assertNotEquals(0, indicesOfA);
+        assertNotEquals(indicesOfA, indicesOfB);
+        assertEquals(0, firstIndex(indicesOfA));
+        assertEquals(1, firstIndex(indicesOfB));
+    }
+
+    @Test
+    public void pixelsAreUploadedInBandsUnderTheBudget() throws Exception {
+        final int width = 4;
+        final int height = 8;
+        final var texture = Texture.create2D(width, height, 1, GL_RGBA8);
+        try {
+            uploads.setBudget(2L * width * 4);
+            final var future = factory.pixels(texture, 0, 0, 0, width, height, pixels -> {
+                for (int i = 0; i < width * height; i++) {
+                    pixels.putInt(i * 4, i);
+                }
+            });
+            awaitDecoders();
+
+            for (int frame = 0; frame < height / 2 - 1; frame++) {
+                uploads.apply();
+                assertFalse(future.isDone());
+            }
+            uploads.apply();
+            assertTrue(future.isDone());
+
+            final var read = MemoryUtil.memAlloc(width * height * 4);
+            try {
+                glGetTextureImage(future.get().getPointer(), 0, GL_RGBA, GL_UNSIGNED_BYTE, read);
+                for (int i = 0; i < width * height; i++) {
+                    assertEquals(i, read.getInt(i * 4));
+                }
+            } finally {
+                MemoryUtil.memFree(read);
+            }
+        } finally {
+            texture.cleanUp();
+        }
+    }
+
+    private static void triangle(MeshBuilder mesh, int first) {
+        mesh.vertex().put(0f, 0f, 0f).endVertex();
+        mesh.vertex().put(1f, 0f, 0f).endVertex();
+        mesh.vertex().put(0f, 1f, 0f).endVertex();
+        mesh.triangle(first, (first + 1) % 3, (first + 2) % 3);
+    }
+
+    private static int firstIndex(int buffer) {
+        final var read = MemoryUtil.memAlloc(Integer.BYTES);
+        try {
+            glGetNamedBufferSubData(buffer, 0, read);
+            return read.getInt(0);
+        } finally {
+            MemoryUtil.memFree(read);
+        }
+    }
+
+    private void awaitDecoders() throws InterruptedException {
+        decoders.shutdown();
+        assertTrue(decoders.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,36 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class Std140LayoutTest {
+
+    @Test
+    public void alignsMembersLikeTheStd140Rules() {
+        // layout(std140) uniform Block { float a; vec3 b; float c; mat4 d; vec2 e; float f[2]; };
+        final var layout = new Std140Layout();
+        assertEquals(0, layout.scalar());
+        assertEquals(16, layout.vec3());
+        assertEquals(28, layout.scalar());
+        assertEquals(32, layout.mat4());
+        assertEquals(96, layout.vec2());
+        assertEquals(112, layout.array(2, Float.BYTES));
+        assertEquals(144, layout.size());
+    }
+
+    @Test
+    public void vec2PacksAfterAScalarAndSizeIsPaddedToAVec4() {
+        final var layout = new Std140Layout();
+        assertEquals(0, layout.scalar());
+        assertEquals(8, layout.vec2());
+        assertEquals(16, layout.vec4());
+        assertEquals(32, layout.scalar());
+        assertEquals(48, layout.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyArrays() {
+        new Std140Layout().array(0, Float.BYTES);
+    }
+}
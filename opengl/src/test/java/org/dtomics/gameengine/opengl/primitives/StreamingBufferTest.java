@@ -0,0 +1,96 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import org.dtomics.gameengine.opengl.GlTestContext;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.lwjgl.opengl.GL11C.glFinish;
+import static org.lwjgl.opengl.GL15C.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL45C.glGetNamedBufferSubData;
+
+public class StreamingBufferTest {
+    private static final int REGION_SIZE = 64;
+    private static final int REGIONS = 3;
+
+    private StreamingBuffer buffer;
+
+    @BeforeClass
+    public static void setUpContext() {
+        GlTestContext.require();
+    }
+
+    @AfterClass
+    public static void tearDownContext() {
+        GlTestContext.release();
+    }
+
+    @Before
+    public void setUp() {
+        buffer = new StreamingBuffer(GL_ARRAY_BUFFER, REGION_SIZE, REGIONS);
+    }
+
+    @After
+    public void tearDown() {
+        buffer.cleanUp();
+    }
+
+    @Test
+    public void reservesWithinTheCurrentRegionOnly() {
+        buffer.begin();
+        assertEquals(0, buffer.reserve(48));
+        assertEquals(48, buffer.reserve(16));
+        assertEquals(-1, buffer.reserve(1));
+        buffer.end();
+
+        buffer.begin();
+        assertEquals(REGION_SIZE, buffer.reserve(8));
+        buffer.end();
+    }
+
+    @Test
+    public void wrapsAroundAfterTheFenceOfTheFirstRegionPassed() {
+        for (int frame = 0; frame < 2 * REGIONS; frame++) {
+            buffer.begin();
+            final long offset = buffer.reserve(Integer.BYTES);
+            assertEquals((long) (frame % REGIONS) * REGION_SIZE, offset);
+            buffer.memory().putInt((int) offset, frame);
+            buffer.end();
+            glFinish();
+        }
+        // every fence was signaled before its region came up again
+        assertEquals(0, buffer.getStalls());
+
+        final var read = MemoryUtil.memAlloc(REGION_SIZE * REGIONS);
+        try {
+            glGetNamedBufferSubData(buffer.getPointer(), 0, read);
+            for (int region = 0; region < REGIONS; region++) {
+                assertEquals(REGIONS + region, read.getInt(region * REGION_SIZE));
+            }
+        } finally {
+            MemoryUtil.memFree(read);
+        }
+    }
+
+    @Test
+    public void waitsForTheGpuWhenTheRingIsFull() {
+        for (int frame = 0; frame < 4 * REGIONS; frame++) {
+            buffer.begin();
+            buffer.memory().putInt((int) buffer.reserve(Integer.BYTES), frame);
+            buffer.end();
+        }
+        glFinish();
+        // the fence wait may or may not have blocked, but it always returns and leaves the last writes visible
+        final var read = MemoryUtil.memAlloc(Integer.BYTES);
+        try {
+            glGetNamedBufferSubData(buffer.getPointer(), (long) (REGIONS - 1) * REGION_SIZE, read);
+            assertEquals(4 * REGIONS - 1, read.getInt(0));
+        } finally {
+            MemoryUtil.memFree(read);
+        }
+    }
+}
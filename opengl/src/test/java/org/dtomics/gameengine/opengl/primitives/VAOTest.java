@@ -0,0 +1,79 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import org.dtomics.gameengine.opengl.GlTestContext;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.lwjgl.opengl.GL11C.GL_FLOAT;
+import static org.lwjgl.opengl.GL15C.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_ELEMENT_ARRAY_BUFFER_BINDING;
+import static org.lwjgl.opengl.GL15C.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL45C.glGetVertexArrayi;
+
+public class VAOTest {
+
+    @BeforeClass
+    public static void setUpContext() {
+        GlTestContext.require();
+    }
+
+    @AfterClass
+    public static void tearDownContext() {
+        GlTestContext.release();
+    }
+
+    @Test
+    public void indexBufferSetAfterTheAttributesIsAttached() {
+        final var vertices = new VertexBuffer(GL_ARRAY_BUFFER);
+        final var indices = new VertexBuffer(GL_ELEMENT_ARRAY_BUFFER);
+        final var vao = new VAO();
+        try {
+            vao.setVertexBuffer(vertices);
+            vao.attribute(0, 3, GL_FLOAT, false, 12, 0);
+            vao.setIndexBuffer(indices);
+
+            assertEquals(indices.getPointer(), glGetVertexArrayi(vao.getPointer(), GL_ELEMENT_ARRAY_BUFFER_BINDING));
+        } finally {
+            vao.cleanUp();
+            vertices.cleanUp();
+            indices.cleanUp();
+        }
+    }
+
+    @Test
+    public void instanceOnlyVertexArrayGetsItsIndexBuffer() {
+        final var instances = new VertexBuffer(GL_ARRAY_BUFFER);
+        final var indices = new VertexBuffer(GL_ELEMENT_ARRAY_BUFFER);
+        final var vao = new VAO();
+        try {
+            instances.allocate(64, GL_STATIC_DRAW);
+            vao.setInstanceBuffer(instances);
+            vao.setIndexBuffer(indices);
+            vao.instanceAttribute(0, 4, GL_FLOAT, false, 16, 0, 1);
+
+            assertEquals(indices.getPointer(), glGetVertexArrayi(vao.getPointer(), GL_ELEMENT_ARRAY_BUFFER_BINDING));
+        } finally {
+            vao.cleanUp();
+            instances.cleanUp();
+            indices.cleanUp();
+        }
+    }
+
+    @Test
+    public void clearingTheIndexBufferDetachesIt() {
+        final var indices = new VertexBuffer(GL_ELEMENT_ARRAY_BUFFER);
+        final var vao = new VAO();
+        try {
+            vao.setIndexBuffer(indices);
+            vao.setIndexBuffer(null);
+
+            assertEquals(0, glGetVertexArrayi(vao.getPointer(), GL_ELEMENT_ARRAY_BUFFER_BINDING));
+        } finally {
+            vao.cleanUp();
+            indices.cleanUp();
+        }
+    }
+}
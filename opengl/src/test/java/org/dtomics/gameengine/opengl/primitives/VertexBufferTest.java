@@ -0,0 +1,60 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import org.dtomics.gameengine.opengl.GlTestContext;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.lwjgl.opengl.GL11C.GL_FLOAT;
+import static org.lwjgl.opengl.GL15C.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15C.GL_ELEMENT_ARRAY_BUFFER_BINDING;
+import static org.lwjgl.opengl.GL15C.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL45C.glGetNamedBufferSubData;
+import static org.lwjgl.opengl.GL45C.glGetVertexArrayi;
+
+public class VertexBufferTest {
+
+    @BeforeClass
+    public static void setUpContext() {
+        GlTestContext.require();
+    }
+
+    @AfterClass
+    public static void tearDownContext() {
+        GlTestContext.release();
+    }
+
+    @Test
+    public void uploadingIndicesKeepsTheBoundVertexArraysIndexBuffer() {
+        final var indices = new VertexBuffer(GL_ELEMENT_ARRAY_BUFFER);
+        final var vao = new VAO();
+        vao.setIndexBuffer(indices);
+        vao.attribute(0, 1, GL_FLOAT, false, 4, 0);
+        // release builds leave the vertex array bound after setting it up
+        vao.bind();
+
+        final var other = new VertexBuffer(GL_ELEMENT_ARRAY_BUFFER);
+        final var data = MemoryUtil.memAlloc(3 * Integer.BYTES);
+        try {
+            data.putInt(0).putInt(1).putInt(2).flip();
+            other.allocate(data.remaining(), GL_STATIC_DRAW);
+            other.upload(0, data);
+
+            assertEquals(indices.getPointer(), glGetVertexArrayi(vao.getPointer(), GL_ELEMENT_ARRAY_BUFFER_BINDING));
+            final var read = MemoryUtil.memAlloc(3 * Integer.BYTES);
+            try {
+                glGetNamedBufferSubData(other.getPointer(), 0, read);
+                assertEquals(2, read.getInt(8));
+            } finally {
+                MemoryUtil.memFree(read);
+            }
+        } finally {
+            MemoryUtil.memFree(data);
+            vao.cleanUp();
+            indices.cleanUp();
+            other.cleanUp();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.dtomics.gameengine.opengl.primitives;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class VertexLayoutTest {
+
+    @Test
+    public void attributesStartFourByteAligned() {
+        final var layout = VertexLayout.builder()
+                .floats(0, 3)
+                .normalizedBytes(1, 3)
+                .normalizedBytes(2, 1)
+                .floats(3, 2)
+                .build();
+
+        assertEquals(4, layout.attributeCount());
+        assertEquals(0, layout.attribute(0).offset());
+        assertEquals(12, layout.attribute(1).offset());
+        assertEquals(16, layout.attribute(2).offset());
+        assertEquals(20, layout.attribute(3).offset());
+        assertEquals(28, layout.getStride());
+    }
+
+    @Test
+    public void packedColorTakesOneWord() {
+        final var layout = VertexLayout.builder().normalizedBytes(0, 4).build();
+        assertEquals(4, layout.attribute(0).bytes());
+        assertEquals(4, layout.getStride());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void locationsAreUnique() {
+        VertexLayout.builder().floats(0, 3).floats(0, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void componentCountIsBounded() {
+        VertexLayout.builder().floats(0, 5);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void emptyLayoutIsRejected() {
+        VertexLayout.builder().build();
+    }
+}
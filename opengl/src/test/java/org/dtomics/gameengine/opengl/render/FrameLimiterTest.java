@@ -0,0 +1,70 @@
+package org.dtomics.gameengine.opengl.render;
+
+import org.dtomics.gameengine.opengl.GlTestContext;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.lwjgl.opengl.GL11C.GL_COLOR_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11C.glClear;
+import static org.lwjgl.opengl.GL11C.glFinish;
+
+public class FrameLimiterTest {
+    private static final int FRAMES = 32;
+
+    @BeforeClass
+    public static void setUpContext() {
+        GlTestContext.require();
+    }
+
+    @AfterClass
+    public static void tearDownContext() {
+        GlTestContext.release();
+    }
+
+    @Test
+    public void oneFrameInFlight() {
+        assertLimited(1);
+    }
+
+    @Test
+    public void twoFramesInFlight() {
+        assertLimited(2);
+    }
+
+    @Test
+    public void unlimitedStillMeasuresAndCleansUp() {
+        final var limiter = new FrameLimiter(FrameLimiter.UNLIMITED);
+        for (int frame = 0; frame < FRAMES; frame++) {
+            glClear(GL_COLOR_BUFFER_BIT);
+            limiter.frameSwapped();
+            assertTrue(limiter.getFramesAhead() <= FrameLimiter.MAX_FRAMES_IN_FLIGHT + 1);
+        }
+        assertEquals(0, limiter.getStalls());
+        assertEquals(FRAMES, limiter.getCpuAhead().getCount());
+
+        limiter.cleanUp();
+        assertEquals(0, limiter.getFramesAhead());
+        // nothing is left pending, the next frame only tracks its own fence
+        glFinish();
+        limiter.frameSwapped();
+        assertEquals(1, limiter.getFramesAhead());
+        limiter.cleanUp();
+    }
+
+    private static void assertLimited(int limit) {
+        final var limiter = new FrameLimiter(limit);
+        try {
+            for (int frame = 0; frame < FRAMES; frame++) {
+                glClear(GL_COLOR_BUFFER_BIT);
+                limiter.frameSwapped();
+                assertTrue(limiter.getFramesAhead() <= limit);
+            }
+        } finally {
+            limiter.cleanUp();
+        }
+        assertEquals(0, limiter.getFramesAhead());
+    }
+}
@@ -0,0 +1,81 @@
+package org.dtomics.gameengine.opengl.render;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SkylinePackerTest {
+
+    @Test
+    public void equalSquaresTileWithoutWaste() {
+        final var packer = new SkylinePacker(16, 16);
+        assertTrue(packer.isEmpty());
+
+        assertEquals(position(0, 0), packer.insert(8, 8));
+        assertEquals(position(8, 0), packer.insert(8, 8));
+        assertEquals(position(0, 8), packer.insert(8, 8));
+        assertEquals(position(8, 8), packer.insert(8, 8));
+        assertEquals(-1, packer.insert(1, 1));
+
+        assertFalse(packer.isEmpty());
+        assertEquals(256, packer.getUsedArea());
+        assertEquals(0, packer.getWastedArea());
+    }
+
+    @Test
+    public void spaceShadowedByAWiderRectangleIsWaste() {
+        final var packer = new SkylinePacker(16, 16);
+        assertEquals(position(0, 0), packer.insert(10, 4));
+        // rests on the 10 wide rectangle and covers the 6x4 gap next to it
+        assertEquals(position(0, 4), packer.insert(16, 2));
+
+        assertEquals(72, packer.getUsedArea());
+        assertEquals(24, packer.getWastedArea());
+        assertEquals(96, packer.getSkylineArea());
+    }
+
+    @Test
+    public void rectanglesNeverOverlapOrLeaveTheBounds() {
+        final int size = 256;
+        final var random = new Random(42);
+        final var packer = new SkylinePacker(size, size);
+        final List<int[]> placed = new ArrayList<>();
+        long area = 0;
+        for (int i = 0; i < 500; i++) {
+            final int width = 1 + random.nextInt(32);
+            final int height = 1 + random.nextInt(32);
+            final long position = packer.insert(width, height);
+            if (position < 0) {
+                continue;
+            }
+            final int x = (int) (position >>> 32);
+            final int y = (int) position;
+            assertTrue(x >= 0 && y >= 0 && x + width <= size && y + height <= size);
+            for (final int[] other : placed) {
+                final boolean overlaps = x < other[0] + other[2] && other[0] < x + width
+                        && y < other[1] + other[3] && other[1] < y + height;
+                assertFalse(overlaps);
+            }
+            placed.add(new int[]{x, y, width, height});
+            area += (long) width * height;
+        }
+        assertEquals(area, packer.getUsedArea());
+        assertTrue(packer.getWastedArea() >= 0);
+        assertTrue(packer.getUsedArea() + packer.getWastedArea() <= (long) size * size);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyRectangleIsRejected() {
+        new SkylinePacker(16, 16).insert(0, 4);
+    }
+
+    private static long position(int x, int y) {
+        return (long) x << 32 | y;
+    }
+}
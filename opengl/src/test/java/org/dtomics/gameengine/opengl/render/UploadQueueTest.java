@@ -0,0 +1,82 @@
+package org.dtomics.gameengine.opengl.render;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class UploadQueueTest {
+
+    private static class FakeUpload implements UploadQueue.Upload {
+        private final String name;
+        private final List<String> log;
+        private long remaining;
+        Throwable failure;
+
+        private FakeUpload(String name, long bytes, List<String> log) {
+            this.name = name;
+            this.remaining = bytes;
+            this.log = log;
+        }
+
+        @Override
+        public long step(long budget) {
+            final long bytes = Math.min(budget, remaining);
+            remaining -= bytes;
+            log.add(name + ":" + bytes);
+            return bytes;
+        }
+
+        @Override
+        public boolean isDone() {
+            return remaining == 0;
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            failure = cause;
+        }
+    }
+
+    @Test
+    public void spreadsUploadsOverFramesInSubmissionOrder() {
+        final List<String> log = new ArrayList<>();
+        final var queue = new UploadQueue();
+        queue.setBudget(100);
+        queue.submit(new FakeUpload("a", 150, log));
+        queue.submit(new FakeUpload("b", 30, log));
+
+        queue.apply();
+        assertEquals(List.of("a:100"), log);
+        assertEquals(100, queue.getFrameBytes());
+        assertEquals(2, queue.getPending());
+
+        queue.apply();
+        assertEquals(List.of("a:100", "a:50", "b:30"), log);
+        assertEquals(80, queue.getFrameBytes());
+        assertEquals(0, queue.getPending());
+    }
+
+    @Test
+    public void failingUploadIsReleasedAndTheNextOneRuns() {
+        final List<String> log = new ArrayList<>();
+        final var error = new IllegalStateException("boom");
+        final var broken = new FakeUpload("broken", 10, log) {
+            @Override
+            public long step(long budget) {
+                throw error;
+            }
+        };
+        final var queue = new UploadQueue();
+        queue.submit(broken);
+        queue.submit(new FakeUpload("next", 10, log));
+
+        queue.apply();
+        assertSame(error, broken.failure);
+        assertEquals(List.of("next:10"), log);
+        assertEquals(0, queue.getPending());
+    }
+}
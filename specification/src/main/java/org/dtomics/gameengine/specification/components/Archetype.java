@@ -0,0 +1,151 @@
+package org.dtomics.gameengine.specification.components;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Storage for every entity that has exactly the same set of component types. Components of one
+ * type live in their own contiguous column, and an entity is a row across all columns, so systems
+ * iterating a component type walk a dense array instead of chasing per entity lists.
+ */
+public final class Archetype {
+    private static final int INITIAL_CAPACITY = 16;
+
+    @Getter private final ComponentMask mask;
+    private final int[] typeIds;
+    private final int[] columnByTypeId;
+    private final Component[][] columns;
+    private Entity[] entities;
+    private int size;
+
+    private Archetype[] addEdges = new Archetype[0];
+    private Archetype[] removeEdges = new Archetype[0];
+
+    Archetype(ComponentMask mask) {
+        this.mask = mask;
+        this.typeIds = mask.typeIds();
+        this.columnByTypeId = new int[typeIds.length == 0 ? 0 : typeIds[typeIds.length - 1] + 1];
+        Arrays.fill(this.columnByTypeId, -1);
+        for (int i = 0; i < typeIds.length; i++) {
+            this.columnByTypeId[typeIds[i]] = i;
+        }
+        this.columns = new Component[typeIds.length][INITIAL_CAPACITY];
+        this.entities = new Entity[INITIAL_CAPACITY];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int columnCount() {
+        return typeIds.length;
+    }
+
+    public Entity entity(int row) {
+        return entities[row];
+    }
+
+    /**
+     * @return the column index of the component type, or -1 if this archetype does not have it
+     */
+    public int columnOf(int typeId) {
+        return typeId < columnByTypeId.length ? columnByTypeId[typeId] : -1;
+    }
+
+    public int columnOf(Class<? extends Component> componentClass) {
+        return columnOf(ComponentType.idOf(componentClass));
+    }
+
+    /**
+     * Raw column of components, valid for rows {@code 0} until {@link #size()}. The array is replaced when the
+     * archetype grows, so it should not be kept across structural changes.
+     */
+    public Component[] column(int column) {
+        return columns[column];
+    }
+
+    public Component get(int column, int row) {
+        return columns[column][row];
+    }
+
+    int typeIdAt(int column) {
+        return typeIds[column];
+    }
+
+    /**
+     * @return the first column whose component type is assignable to the given class, or -1
+     */
+    int assignableColumnOf(Class<?> componentClass) {
+        for (int i = 0; i < typeIds.length; i++) {
+            if (componentClass.isAssignableFrom(ComponentType.byId(typeIds[i]).getType())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int add(Entity entity) {
+        if (size == entities.length) {
+            grow();
+        }
+        entities[size] = entity;
+        return size++;
+    }
+
+    void set(int column, int row, Component component) {
+        columns[column][row] = component;
+    }
+
+    /**
+     * Removes the row by moving the last row into its place.
+     *
+     * @return the entity that now occupies the removed row, or null if the last row was removed
+     */
+    Entity remove(int row) {
+        final int last = --size;
+        Entity moved = null;
+        if (row != last) {
+            moved = entities[last];
+            entities[row] = moved;
+            for (final var column : columns) {
+                column[row] = column[last];
+            }
+        }
+        entities[last] = null;
+        for (final var column : columns) {
+            column[last] = null;
+        }
+        return moved;
+    }
+
+    Archetype addEdge(int typeId) {
+        return typeId < addEdges.length ? addEdges[typeId] : null;
+    }
+
+    void addEdge(int typeId, Archetype archetype) {
+        if (typeId >= addEdges.length) {
+            addEdges = Arrays.copyOf(addEdges, typeId + 1);
+        }
+        addEdges[typeId] = archetype;
+    }
+
+    Archetype removeEdge(int typeId) {
+        return typeId < removeEdges.length ? removeEdges[typeId] : null;
+    }
+
+    void removeEdge(int typeId, Archetype archetype) {
+        if (typeId >= removeEdges.length) {
+            removeEdges = Arrays.copyOf(removeEdges, typeId + 1);
+        }
+        removeEdges[typeId] = archetype;
+    }
+
+    private void grow() {
+        final int capacity = entities.length << 1;
+        entities = Arrays.copyOf(entities, capacity);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Arrays.copyOf(columns[i], capacity);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.dtomics.gameengine.specification.components;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of {@link ComponentType} ids stored as a bit mask.
+ */
+public final class ComponentMask {
+    public static final ComponentMask EMPTY = new ComponentMask(new long[0]);
+
+    private final long[] words;
+    private final int hash;
+
+    private ComponentMask(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        this.words = length == words.length ? words : Arrays.copyOf(words, length);
+        this.hash = Arrays.hashCode(this.words);
+    }
+
+    public static ComponentMask of(Class<?>... types) {
+        var mask = EMPTY;
+        for (final var type : types) {
+            mask = mask.with(ComponentType.idOf(type));
+        }
+        return mask;
+    }
+
+    public boolean has(int typeId) {
+        final int word = typeId >>> 6;
+        return word < words.length && (words[word] & (1L << typeId)) != 0;
+    }
+
+    public boolean containsAll(ComponentMask other) {
+        if (other.words.length > words.length) {
+            return false;
+        }
+        for (int i = 0; i < other.words.length; i++) {
+            if ((words[i] & other.words[i]) != other.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean intersects(ComponentMask other) {
+        final int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public ComponentMask with(int typeId) {
+        if (has(typeId)) {
+            return this;
+        }
+        final var result = Arrays.copyOf(words, Math.max(words.length, (typeId >>> 6) + 1));
+        result[typeId >>> 6] |= 1L << typeId;
+        return new ComponentMask(result);
+    }
+
+    public ComponentMask without(int typeId) {
+        if (!has(typeId)) {
+            return this;
+        }
+        final var result = words.clone();
+        result[typeId >>> 6] &= ~(1L << typeId);
+        return new ComponentMask(result);
+    }
+
+    public ComponentMask or(ComponentMask other) {
+        final var result = Arrays.copyOf(words, Math.max(words.length, other.words.length));
+        for (int i = 0; i < other.words.length; i++) {
+            result[i] |= other.words[i];
+        }
+        return new ComponentMask(result);
+    }
+
+    public int[] typeIds() {
+        int count = 0;
+        for (final long word : words) {
+            count += Long.bitCount(word);
+        }
+        final var ids = new int[count];
+        int index = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                ids[index++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof ComponentMask mask && hash == mask.hash && Arrays.equals(words, mask.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,56 @@
+package org.dtomics.gameengine.specification.components;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Small integer id of a component class. Ids are handed out in first use order and never reused,
+ * so they can index arrays and bit masks directly.
+ */
+@Getter
+public final class ComponentType {
+    private static final Object LOCK = new Object();
+    private static volatile ComponentType[] byId = new ComponentType[64];
+    private static int nextId;
+    private static final ClassValue<ComponentType> TYPES = new ClassValue<>() {
+        @Override
+        protected ComponentType computeValue(Class<?> type) {
+            synchronized (LOCK) {
+                final var componentType = new ComponentType(nextId++, type);
+                var types = byId;
+                if (componentType.id == types.length) {
+                    types = Arrays.copyOf(types, types.length << 1);
+                }
+                types[componentType.id] = componentType;
+                byId = types;
+                return componentType;
+            }
+        }
+    };
+
+    private final int id;
+    private final Class<?> type;
+
+    private ComponentType(int id, Class<?> type) {
+        this.id = id;
+        this.type = type;
+    }
+
+    public static ComponentType of(Class<?> type) {
+        return TYPES.get(type);
+    }
+
+    public static int idOf(Class<?> type) {
+        return TYPES.get(type).id;
+    }
+
+    public static ComponentType byId(int id) {
+        return byId[id];
+    }
+
+    @Override
+    public String toString() {
+        return "%s#%d".formatted(type.getSimpleName(), id);
+    }
+}
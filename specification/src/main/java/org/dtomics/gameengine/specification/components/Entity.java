@@ -1,62 +1,93 @@
 package org.dtomics.gameengine.specification.components;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.dtomics.gameengine.specification.window.Window;
 
-import java.util.ArrayList;
-import java.util.List;
-
-@RequiredArgsConstructor
+/**
+ * Handle to a row of an {@link Archetype}. Entities are created with {@link World#spawn(String)} and
+ * hold at most one component of every concrete component class, adding a second one replaces the first.
+ * <p>
+ * Components are initialized and updated in {@link ComponentType} id order, the order in which their
+ * classes were first used, not the order they were added to the entity.
+ */
 public class Entity {
 
     private boolean initialized;
     @Getter
     private final String name;
-    private final List<Component> components = new ArrayList<>();
+    @Getter(AccessLevel.PACKAGE)
+    private final World world;
+    @Getter(AccessLevel.PACKAGE)
+    private Archetype archetype;
+    @Getter(AccessLevel.PACKAGE)
+    private int row;
+
+    Entity(World world, String name) {
+        this.world = world;
+        this.name = name;
+    }
 
     public void addComponent(Component component) {
-        if (component == null) {
+        if (component == null || archetype == null) {
             return;
         }
-        components.add(component);
+        world.add(this, component);
         if (initialized) {
             component.init();
         }
     }
 
     public <T extends Component> T getComponent(Class<T> componentClass) {
-        for (int i = 0; i < components.size(); i++) {
-            final var component = components.get(i);
-            if (!componentClass.isAssignableFrom(component.getClass())) {
-                continue;
+        if (archetype == null) {
+            return null;
+        }
+        int column = archetype.columnOf(ComponentType.idOf(componentClass));
+        if (column < 0) {
+            column = archetype.assignableColumnOf(componentClass);
+            if (column < 0) {
+                return null;
             }
-            return componentClass.cast(component);
         }
-        return null;
+        return componentClass.cast(archetype.get(column, row));
     }
+
     public <T extends Component> void removeComponent(Class<T> componentClass) {
-        for (int i = 0; i < components.size(); i++) {
-            final var component = components.get(i);
-            if (!componentClass.isAssignableFrom(component.getClass())) {
-                continue;
-            }
-            components.remove(i);
-            --i;
+        if (archetype == null) {
+            return;
+        }
+        world.remove(this, ComponentType.idOf(componentClass));
+        int column;
+        while ((column = archetype.assignableColumnOf(componentClass)) >= 0) {
+            world.remove(this, archetype.typeIdAt(column));
         }
     }
 
     public void init() {
-        if (initialized) {
+        if (initialized || archetype == null) {
             return;
         }
-        components.forEach(Component::init);
+        for (int c = 0; c < archetype.columnCount(); c++) {
+            archetype.get(c, row).init();
+        }
         initialized = true;
     }
 
     public void update(Window window) {
-        for (int i = 0; i < components.size(); i++) {
-            components.get(i).update(window);
+        if (archetype == null) {
+            return;
+        }
+        for (int c = 0; c < archetype.columnCount(); c++) {
+            archetype.get(c, row).update(window);
         }
     }
+
+    public boolean isAlive() {
+        return archetype != null;
+    }
+
+    void place(Archetype archetype, int row) {
+        this.archetype = archetype;
+        this.row = row;
+    }
 }
@@ -0,0 +1,80 @@
+package org.dtomics.gameengine.specification.components;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Every archetype of a {@link World} that has at least the queried component types. Matches are
+ * cached and only new archetypes are tested, so keeping a query around makes iteration free of
+ * lookups.
+ */
+public class Query {
+
+    private final World world;
+    @Getter private final ComponentMask mask;
+    private Archetype[] matches = new Archetype[4];
+    private int matchCount;
+    private int checkedArchetypes;
+
+    Query(World world, ComponentMask mask) {
+        this.world = world;
+        this.mask = mask;
+    }
+
+    public void forEach(Consumer<Entity> action) {
+        refresh();
+        for (int a = 0; a < matchCount; a++) {
+            final var archetype = matches[a];
+            for (int row = 0; row < archetype.size(); row++) {
+                action.accept(archetype.entity(row));
+            }
+        }
+    }
+
+    public void forEachArchetype(Consumer<Archetype> action) {
+        refresh();
+        for (int a = 0; a < matchCount; a++) {
+            if (matches[a].size() > 0) {
+                action.accept(matches[a]);
+            }
+        }
+    }
+
+    /**
+     * Number of matching archetypes, refreshing the matches first. Together with {@link #archetypeAt(int)} this
+     * allows iterating without a callback.
+     */
+    public int archetypeCount() {
+        refresh();
+        return matchCount;
+    }
+
+    public Archetype archetypeAt(int index) {
+        return matches[index];
+    }
+
+    public int size() {
+        refresh();
+        int size = 0;
+        for (int a = 0; a < matchCount; a++) {
+            size += matches[a].size();
+        }
+        return size;
+    }
+
+    private void refresh() {
+        final int archetypeCount = world.archetypeCount();
+        for (; checkedArchetypes < archetypeCount; checkedArchetypes++) {
+            final var archetype = world.archetypeAt(checkedArchetypes);
+            if (!archetype.getMask().containsAll(mask)) {
+                continue;
+            }
+            if (matchCount == matches.length) {
+                matches = Arrays.copyOf(matches, matchCount << 1);
+            }
+            matches[matchCount++] = archetype;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.dtomics.gameengine.specification.components;
+
+import org.dtomics.gameengine.specification.window.Window;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns every {@link Entity} and stores their components grouped by {@link Archetype}. Structural
+ * changes (spawning, despawning, adding or removing components) are not thread safe and must happen
+ * on one thread. Queries may run concurrently, e.g. from systems of one scheduler stage, as long as
+ * no structural change is in progress.
+ */
+public class World {
+
+    private final Map<ComponentMask, Archetype> archetypesByMask = new HashMap<>();
+    private final List<Archetype> archetypes = new ArrayList<>();
+    private final Archetype emptyArchetype;
+    private int entityCount;
+
+    public World() {
+        this.emptyArchetype = archetypeOf(ComponentMask.EMPTY);
+    }
+
+    public Entity spawn(String name) {
+        final var entity = new Entity(this, name);
+        entity.place(emptyArchetype, emptyArchetype.add(entity));
+        entityCount++;
+        return entity;
+    }
+
+    public void destroy(Entity entity) {
+        if (entity.getWorld() != this || entity.getArchetype() == null) {
+            return;
+        }
+        detach(entity);
+        entity.place(null, -1);
+        entityCount--;
+    }
+
+    public int size() {
+        return entityCount;
+    }
+
+    public Query query(Class<?>... componentClasses) {
+        return new Query(this, ComponentMask.of(componentClasses));
+    }
+
+    /**
+     * Updates every component of every entity, one component column at a time. All components of one type in an
+     * archetype are updated before the next type, so the components of a single entity do not run back to back,
+     * and types run in {@link ComponentType} id order. When one component type has to update before another,
+     * register a {@link org.dtomics.gameengine.specification.systems.ComponentUpdateSystem} per type on a
+     * {@link org.dtomics.gameengine.specification.systems.SystemScheduler} instead, in the order they should run.
+     */
+    public void update(Window window) {
+        for (int a = 0; a < archetypes.size(); a++) {
+            final var archetype = archetypes.get(a);
+            final int size = archetype.size();
+            for (int c = 0; c < archetype.columnCount(); c++) {
+                final var column = archetype.column(c);
+                for (int row = 0; row < size; row++) {
+                    column[row].update(window);
+                }
+            }
+        }
+    }
+
+    int archetypeCount() {
+        return archetypes.size();
+    }
+
+    Archetype archetypeAt(int index) {
+        return archetypes.get(index);
+    }
+
+    void add(Entity entity, Component component) {
+        final int typeId = ComponentType.idOf(component.getClass());
+        final var source = entity.getArchetype();
+        final int existing = source.columnOf(typeId);
+        if (existing >= 0) {
+            source.set(existing, entity.getRow(), component);
+            return;
+        }
+        var target = source.addEdge(typeId);
+        if (target == null) {
+            target = archetypeOf(source.getMask().with(typeId));
+            source.addEdge(typeId, target);
+            target.removeEdge(typeId, source);
+        }
+        move(entity, target);
+        target.set(target.columnOf(typeId), entity.getRow(), component);
+    }
+
+    void remove(Entity entity, int typeId) {
+        final var source = entity.getArchetype();
+        if (source.columnOf(typeId) < 0) {
+            return;
+        }
+        var target = source.removeEdge(typeId);
+        if (target == null) {
+            target = archetypeOf(source.getMask().without(typeId));
+            source.removeEdge(typeId, target);
+            target.addEdge(typeId, source);
+        }
+        move(entity, target);
+    }
+
+    private void move(Entity entity, Archetype target) {
+        final var source = entity.getArchetype();
+        final int sourceRow = entity.getRow();
+        final int targetRow = target.add(entity);
+        for (int c = 0; c < source.columnCount(); c++) {
+            final int column = target.columnOf(source.typeIdAt(c));
+            if (column >= 0) {
+                target.set(column, targetRow, source.get(c, sourceRow));
+            }
+        }
+        detach(entity);
+        entity.place(target, targetRow);
+    }
+
+    private void detach(Entity entity) {
+        final var moved = entity.getArchetype().remove(entity.getRow());
+        if (moved != null) {
+            moved.place(moved.getArchetype(), entity.getRow());
+        }
+    }
+
+    private Archetype archetypeOf(ComponentMask mask) {
+        var archetype = archetypesByMask.get(mask);
+        if (archetype == null) {
+            archetype = new Archetype(mask);
+            archetypesByMask.put(mask, archetype);
+            archetypes.add(archetype);
+        }
+        return archetype;
+    }
+}
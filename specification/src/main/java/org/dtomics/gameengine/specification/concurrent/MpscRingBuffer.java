@@ -0,0 +1,207 @@
+package org.dtomics.gameengine.specification.concurrent;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, preallocated multi-producer/single-consumer ring buffer. Every slot carries a sequence
+ * number that producers claim with a single CAS on the tail, so offering into a ring with free
+ * space allocates nothing. {@link #poll()}, {@link #drain(Consumer)} and {@link #clear()} must
+ * only be called from the consumer thread.
+ */
+public class MpscRingBuffer<E> {
+    private static final int BLOCK_SPIN_TRIES = 128;
+    private static final long BLOCK_PARK_NANOS = 50_000L;
+
+    public enum BackpressurePolicy {
+        /**
+         * producers wait until the consumer frees a slot
+         */
+        BLOCK,
+        /**
+         * the element is rejected and counted as dropped
+         */
+        DROP,
+        /**
+         * the element spills into an unbounded overflow queue which is drained after the ring. while
+         * spilled elements are pending, later elements follow them into the overflow to keep fifo order.
+         * spilling allocates, so the ring capacity should be tuned until nothing spills in steady state
+         */
+        GROW
+    }
+
+    @Getter private final int capacity;
+    @Getter private final BackpressurePolicy policy;
+    private final int mask;
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final Queue<E> overflow;
+    private final AtomicLong overflowPending = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+
+    public MpscRingBuffer(int capacity, BackpressurePolicy policy) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("invalid capacity %d. should be between 1 and 2^30".formatted(capacity));
+        }
+        // a single slot can not tell a consumed slot from a full one by its sequence, so the ring has at least two
+        this.capacity = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.policy = policy == null ? BackpressurePolicy.BLOCK : policy;
+        this.mask = this.capacity - 1;
+        this.buffer = new Object[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            this.sequences.set(i, i);
+        }
+        this.overflow = this.policy == BackpressurePolicy.GROW ? new ConcurrentLinkedQueue<>() : null;
+    }
+
+    /**
+     * @return false only when the ring is full and the policy is {@link BackpressurePolicy#DROP}
+     */
+    public boolean offer(@NonNull E element) {
+        if (overflow != null && overflowPending.get() > 0) {
+            spill(element);
+            return true;
+        }
+        if (tryOffer(element)) {
+            return true;
+        }
+        switch (policy) {
+            case DROP -> {
+                dropped.increment();
+                return false;
+            }
+            case GROW -> {
+                spill(element);
+                return true;
+            }
+            default -> {
+                int spins = 0;
+                while (!tryOffer(element)) {
+                    if (spins++ < BLOCK_SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+    public E poll() {
+        final var element = pollRing();
+        if (element != null || overflow == null) {
+            return element;
+        }
+        return pollOverflow();
+    }
+
+    /**
+     * Hands every element that was available when the drain started to the consumer. Elements
+     * offered during the drain may be left for the next call, so a busy producer can not keep the
+     * consumer in here forever.
+     *
+     * @return number of elements consumed
+     */
+    public int drain(Consumer<? super E> consumer) {
+        int count = 0;
+        final long limit = tail.get() - head.get();
+        E element;
+        while (count < limit && (element = pollRing()) != null) {
+            consumer.accept(element);
+            count++;
+        }
+        if (overflow == null) {
+            return count;
+        }
+        for (int i = overflow.size(); i > 0 && (element = pollOverflow()) != null; i--) {
+            consumer.accept(element);
+            count++;
+        }
+        return count;
+    }
+
+    public void clear() {
+        while (poll() != null) {
+            // discard
+        }
+    }
+
+    public int size() {
+        final long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity)) + (overflow == null ? 0 : overflow.size());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getSpilled() {
+        return spilled.sum();
+    }
+
+    private void spill(E element) {
+        overflowPending.incrementAndGet();
+        overflow.add(element);
+        spilled.increment();
+    }
+
+    private E pollOverflow() {
+        final var element = overflow.poll();
+        if (element != null) {
+            overflowPending.decrementAndGet();
+        }
+        return element;
+    }
+
+    private boolean tryOffer(E element) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E pollRing() {
+        final long position = head.get();
+        final int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        final var element = (E) buffer[index];
+        buffer[index] = null;
+        sequences.set(index, position + capacity);
+        head.lazySet(position + 1);
+        return element;
+    }
+}
@@ -0,0 +1,167 @@
+package org.dtomics.gameengine.specification.events;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Typed multi-subscriber dispatch. Subscribers live in one array per {@link EventType} id, so
+ * finding them is an index and delivering to them a loop without allocation. Subscribing copies the
+ * array of the type, it is meant to happen rarely.
+ * <p>
+ * {@link #dispatch(InputEventQueue)} coalesces cursor, scroll and resize events: only the latest
+ * cursor position and framebuffer size and the summed scroll offsets are delivered, flushed before
+ * any key, button or close event so those still observe the state they happened in. Dispatching has
+ * to happen on a single thread, usually the game thread once per tick.
+ */
+public class EventBus {
+    private static final Object[] NONE = new Object[0];
+
+    private volatile Object[][] subscribers = new Object[16][];
+    private final LongConsumer dispatcher = this::accept;
+
+    private boolean cursorPending;
+    private long cursor;
+    private boolean scrollPending;
+    private double scrollX;
+    private double scrollY;
+    private boolean resizePending;
+    private long resize;
+    @Getter private long coalesced;
+
+    public EventBus() {
+        Arrays.fill(subscribers, NONE);
+    }
+
+    public synchronized <H> void subscribe(EventType<H> type, H handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("handler for %s should not be null".formatted(type));
+        }
+        var subscribers = this.subscribers;
+        if (type.getId() >= subscribers.length) {
+            final int length = subscribers.length;
+            subscribers = Arrays.copyOf(subscribers, Math.max(length << 1, type.getId() + 1));
+            Arrays.fill(subscribers, length, subscribers.length, NONE);
+        } else {
+            subscribers = subscribers.clone();
+        }
+        final var handlers = subscribers[type.getId()];
+        final var grown = Arrays.copyOf(handlers, handlers.length + 1);
+        grown[handlers.length] = handler;
+        subscribers[type.getId()] = grown;
+        this.subscribers = subscribers;
+    }
+
+    /**
+     * @return false if the handler was not subscribed to the type
+     */
+    public synchronized <H> boolean unsubscribe(EventType<H> type, H handler) {
+        final var subscribers = this.subscribers;
+        if (type.getId() >= subscribers.length) {
+            return false;
+        }
+        final var handlers = subscribers[type.getId()];
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i] == handler) {
+                final var shrunk = new Object[handlers.length - 1];
+                System.arraycopy(handlers, 0, shrunk, 0, i);
+                System.arraycopy(handlers, i + 1, shrunk, i, handlers.length - i - 1);
+                final var copy = subscribers.clone();
+                copy[type.getId()] = shrunk.length == 0 ? NONE : shrunk;
+                this.subscribers = copy;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drains the queue and delivers its events, coalescing as described above.
+     *
+     * @return number of events drained, before coalescing
+     */
+    public int dispatch(InputEventQueue queue) {
+        final int drained = queue.drain(dispatcher);
+        flushCoalesced();
+        return drained;
+    }
+
+    /**
+     * Delivers a game event to the subscribers of a custom type right away.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> void publish(EventType<Consumer<E>> type, E event) {
+        for (final var handler : handlers(type.getId())) {
+            ((Consumer<E>) handler).accept(event);
+        }
+    }
+
+    private void accept(long event) {
+        switch (InputEvents.type(event)) {
+            case InputEvents.CURSOR -> {
+                if (cursorPending) coalesced++;
+                cursorPending = true;
+                cursor = event;
+            }
+            case InputEvents.SCROLL -> {
+                if (scrollPending) coalesced++;
+                scrollPending = true;
+                scrollX += InputEvents.x(event);
+                scrollY += InputEvents.y(event);
+            }
+            case InputEvents.RESIZE -> {
+                if (resizePending) coalesced++;
+                resizePending = true;
+                resize = event;
+            }
+            default -> {
+                flushCoalesced();
+                deliver(event);
+            }
+        }
+    }
+
+    private void flushCoalesced() {
+        if (resizePending) {
+            resizePending = false;
+            for (final var handler : handlers(InputEvents.RESIZE)) {
+                ((EventType.ResizeHandler) handler).onResize(InputEvents.width(resize), InputEvents.height(resize));
+            }
+        }
+        if (cursorPending) {
+            cursorPending = false;
+            for (final var handler : handlers(InputEvents.CURSOR)) {
+                ((EventType.CursorHandler) handler).onCursor(InputEvents.x(cursor), InputEvents.y(cursor));
+            }
+        }
+        if (scrollPending) {
+            scrollPending = false;
+            for (final var handler : handlers(InputEvents.SCROLL)) {
+                ((EventType.ScrollHandler) handler).onScroll(scrollX, scrollY);
+            }
+            scrollX = 0;
+            scrollY = 0;
+        }
+    }
+
+    private void deliver(long event) {
+        final int type = InputEvents.type(event);
+        for (final var handler : handlers(type)) {
+            switch (type) {
+                case InputEvents.KEY -> ((EventType.KeyHandler) handler).onKey(
+                        InputEvents.key(event), InputEvents.scancode(event), InputEvents.action(event), InputEvents.mods(event));
+                case InputEvents.MOUSE_BUTTON -> ((EventType.MouseButtonHandler) handler).onMouseButton(
+                        InputEvents.button(event), InputEvents.action(event), InputEvents.mods(event));
+                case InputEvents.CLOSE -> ((EventType.CloseHandler) handler).onClose();
+                default -> throw new IllegalStateException("unknown input event type %d".formatted(type));
+            }
+        }
+    }
+
+    private Object[] handlers(int type) {
+        final var subscribers = this.subscribers;
+        return type < subscribers.length ? subscribers[type] : NONE;
+    }
+}
@@ -0,0 +1,82 @@
+package org.dtomics.gameengine.specification.events;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Kind of event an {@link EventBus} dispatches, typed by the handler it is delivered to. Every type
+ * has a small integer id that indexes the bus' subscriber arrays. Input types share their ids with
+ * {@link InputEvents}, custom types are numbered after them.
+ */
+public final class EventType<H> {
+    private static final int FIRST_CUSTOM_ID = 16;
+    private static final AtomicInteger NEXT_CUSTOM_ID = new AtomicInteger(FIRST_CUSTOM_ID);
+
+    @FunctionalInterface
+    public interface KeyHandler {
+        void onKey(int key, int scancode, int action, int mods);
+    }
+
+    @FunctionalInterface
+    public interface MouseButtonHandler {
+        void onMouseButton(int button, int action, int mods);
+    }
+
+    @FunctionalInterface
+    public interface CursorHandler {
+        void onCursor(double x, double y);
+    }
+
+    @FunctionalInterface
+    public interface ScrollHandler {
+        void onScroll(double x, double y);
+    }
+
+    @FunctionalInterface
+    public interface ResizeHandler {
+        void onResize(int width, int height);
+    }
+
+    @FunctionalInterface
+    public interface CloseHandler {
+        void onClose();
+    }
+
+    public static final EventType<KeyHandler> KEY = new EventType<>(InputEvents.KEY, "key");
+    public static final EventType<MouseButtonHandler> MOUSE_BUTTON = new EventType<>(InputEvents.MOUSE_BUTTON, "mouse button");
+    /**
+     * coalesced, handlers only see the latest position of a tick
+     */
+    public static final EventType<CursorHandler> CURSOR = new EventType<>(InputEvents.CURSOR, "cursor");
+    /**
+     * coalesced, handlers see the summed offsets of a tick
+     */
+    public static final EventType<ScrollHandler> SCROLL = new EventType<>(InputEvents.SCROLL, "scroll");
+    /**
+     * coalesced, handlers only see the latest framebuffer size of a tick
+     */
+    public static final EventType<ResizeHandler> RESIZE = new EventType<>(InputEvents.RESIZE, "resize");
+    public static final EventType<CloseHandler> CLOSE = new EventType<>(InputEvents.CLOSE, "close");
+
+    @Getter private final int id;
+    @Getter private final String name;
+
+    private EventType(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    /**
+     * Creates a new event type for game events published with {@link EventBus#publish(EventType, Object)}.
+     */
+    public static <E> EventType<Consumer<E>> custom(String name) {
+        return new EventType<>(NEXT_CUSTOM_ID.getAndIncrement(), name);
+    }
+
+    @Override
+    public String toString() {
+        return "%s(%d)".formatted(name, id);
+    }
+}
@@ -0,0 +1,78 @@
+package org.dtomics.gameengine.specification.events;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Preallocated single-producer/single-consumer ring of {@link InputEvents encoded} input events. The
+ * window's event pump offers events as they arrive, the game thread drains them once per tick.
+ * Neither side allocates. When the consumer falls behind, new events are dropped and counted.
+ */
+public class InputEventQueue {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    @Getter private final int capacity;
+    private final int mask;
+    private final long[] events;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public InputEventQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InputEventQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("invalid capacity %d. should be between 1 and 2^30".formatted(capacity));
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.events = new long[this.capacity];
+    }
+
+    /**
+     * Producer side.
+     *
+     * @return false if the queue was full and the event was dropped
+     */
+    public boolean offer(long event) {
+        final long position = tail.get();
+        if (position - head.get() >= capacity) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        events[(int) position & mask] = event;
+        tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side. Hands every event offered before the call to the consumer in arrival order.
+     *
+     * @return number of events consumed
+     */
+    public int drain(LongConsumer consumer) {
+        final long start = head.get();
+        final long end = tail.get();
+        for (long position = start; position < end; position++) {
+            consumer.accept(events[(int) position & mask]);
+            head.lazySet(position + 1);
+        }
+        return (int) (end - start);
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
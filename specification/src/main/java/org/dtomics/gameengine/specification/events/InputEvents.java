@@ -0,0 +1,120 @@
+package org.dtomics.gameengine.specification.events;
+
+/**
+ * Encodes window input into single {@code long}s for an {@link InputEventQueue}, so recording an
+ * event allocates nothing. The top four bits hold the type, the rest depends on it:
+ * <pre>
+ * KEY:          key(16) scancode(16) action(4) mods(8)
+ * MOUSE_BUTTON: button(8) action(4) mods(8)
+ * CURSOR:       x(30) y(30)         signed fixed point with 8 fraction bits
+ * SCROLL:       x(30) y(30)         signed fixed point with 8 fraction bits
+ * RESIZE:       width(30) height(30)
+ * CLOSE:        -
+ * </pre>
+ * Key, button, action and mods values are the ones of the windowing backend, e.g. glfw.
+ */
+public final class InputEvents {
+    public static final int KEY = 1;
+    public static final int MOUSE_BUTTON = 2;
+    public static final int CURSOR = 3;
+    public static final int SCROLL = 4;
+    public static final int RESIZE = 5;
+    public static final int CLOSE = 6;
+
+    private static final int TYPE_SHIFT = 60;
+    private static final int HIGH_SHIFT = 30;
+    private static final long MASK_30 = (1L << 30) - 1;
+    private static final double FIXED_ONE = 256.0;
+
+    private InputEvents() {
+    }
+
+    public static long key(int key, int scancode, int action, int mods) {
+        return (long) KEY << TYPE_SHIFT
+                | (key & 0xFFFFL) << 28
+                | (scancode & 0xFFFFL) << 12
+                | (action & 0xFL) << 8
+                | mods & 0xFFL;
+    }
+
+    public static long mouseButton(int button, int action, int mods) {
+        return (long) MOUSE_BUTTON << TYPE_SHIFT
+                | (button & 0xFFL) << 12
+                | (action & 0xFL) << 8
+                | mods & 0xFFL;
+    }
+
+    public static long cursor(double x, double y) {
+        return (long) CURSOR << TYPE_SHIFT | fixed(x) << HIGH_SHIFT | fixed(y);
+    }
+
+    public static long scroll(double x, double y) {
+        return (long) SCROLL << TYPE_SHIFT | fixed(x) << HIGH_SHIFT | fixed(y);
+    }
+
+    public static long resize(int width, int height) {
+        return (long) RESIZE << TYPE_SHIFT | (width & MASK_30) << HIGH_SHIFT | height & MASK_30;
+    }
+
+    public static long close() {
+        return (long) CLOSE << TYPE_SHIFT;
+    }
+
+    public static int type(long event) {
+        return (int) (event >>> TYPE_SHIFT);
+    }
+
+    /**
+     * @return key of a {@link #KEY} event, negative for unknown keys
+     */
+    public static int key(long event) {
+        return (short) (event >>> 28);
+    }
+
+    public static int scancode(long event) {
+        return (short) (event >>> 12);
+    }
+
+    public static int button(long event) {
+        return (int) (event >>> 12) & 0xFF;
+    }
+
+    public static int action(long event) {
+        return (int) (event >>> 8) & 0xF;
+    }
+
+    public static int mods(long event) {
+        return (int) event & 0xFF;
+    }
+
+    /**
+     * @return x of a {@link #CURSOR} or {@link #SCROLL} event
+     */
+    public static double x(long event) {
+        return unfixed(event >>> HIGH_SHIFT);
+    }
+
+    /**
+     * @return y of a {@link #CURSOR} or {@link #SCROLL} event
+     */
+    public static double y(long event) {
+        return unfixed(event);
+    }
+
+    public static int width(long event) {
+        return (int) ((event >>> HIGH_SHIFT) & MASK_30);
+    }
+
+    public static int height(long event) {
+        return (int) (event & MASK_30);
+    }
+
+    private static long fixed(double value) {
+        return Math.round(value * FIXED_ONE) & MASK_30;
+    }
+
+    private static double unfixed(long bits) {
+        // sign extend the low 30 bits
+        return (bits << 34 >> 34) / FIXED_ONE;
+    }
+}
@@ -1,6 +1,5 @@
 package org.dtomics.gameengine.specification.events;
 
 public interface Listener {
-    <T,C> void  on(Class<T> event, C callback);
+    <H> void on(EventType<H> type, H handler);
 }
-
@@ -0,0 +1,111 @@
+package org.dtomics.gameengine.specification.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of nanosecond timings. Every power of two is split into 32 linear sub
+ * buckets, which keeps the relative error of reported values around 3% while the whole range of a
+ * long fits into a fixed array allocated up front.
+ * <p>
+ * Recording is allocation-free and meant for a single writer thread. Readers on other threads see
+ * the counts without locking, so a query that races a record may be off by that one sample.
+ */
+public class TimingHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private volatile long count;
+    private volatile long total;
+    private volatile long max;
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        final int index = indexOf(nanos);
+        counts.lazySet(index, counts.get(index) + 1);
+        total += nanos;
+        if (nanos > max) {
+            max = nanos;
+        }
+        count++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        final long samples = count;
+        return samples == 0 ? 0 : (double) total / samples;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the upper bound of the bucket holding the requested percentile, never more than {@link #getMax()}
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("invalid percentile %f. should be between 0 and 100".formatted(percentile));
+        }
+        final long samples = count;
+        if (samples == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(samples * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    public TimingSnapshot snapshot() {
+        return new TimingSnapshot(
+                getCount(),
+                getMean(),
+                getPercentile(50),
+                getPercentile(99),
+                getPercentile(99.9),
+                getMax()
+        );
+    }
+
+    /**
+     * Must only be called from the writer thread.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.lazySet(i, 0);
+        }
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,7 @@
+package org.dtomics.gameengine.specification.metrics;
+
+/**
+ * Point in time copy of a {@link TimingHistogram}. All values are in nanoseconds.
+ */
+public record TimingSnapshot(long count, double mean, long p50, long p99, long p999, long max) {
+}
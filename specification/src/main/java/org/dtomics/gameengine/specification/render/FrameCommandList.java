@@ -0,0 +1,68 @@
+package org.dtomics.gameengine.specification.render;
+
+import lombok.Getter;
+import org.dtomics.gameengine.specification.window.Window;
+
+import java.util.Arrays;
+
+/**
+ * A complete frame recorded by the game thread. Lists are owned by a {@link FrameExchange} and
+ * reused from frame to frame, so once the backing array has grown to the largest frame no more
+ * allocation happens while recording.
+ */
+public class FrameCommandList {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private Renderable[] commands = new Renderable[DEFAULT_CAPACITY];
+    private long[] keys = new long[DEFAULT_CAPACITY];
+    private int size;
+    @Getter private long frame;
+
+    FrameCommandList() {
+    }
+
+    public void add(Renderable renderable) {
+        if (renderable == null) {
+            return;
+        }
+        this.add(renderable, renderable.sortKey());
+    }
+
+    /**
+     * Adds a renderable with a key computed by the caller, e.g. from its depth this frame.
+     */
+    public void add(Renderable renderable, long sortKey) {
+        if (renderable == null) {
+            return;
+        }
+        if (size == commands.length) {
+            commands = Arrays.copyOf(commands, size << 1);
+            keys = Arrays.copyOf(keys, size << 1);
+        }
+        keys[size] = sortKey;
+        commands[size++] = renderable;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    void enqueue(RenderQueue queue) {
+        for (int i = 0; i < size; i++) {
+            queue.add(commands[i], keys[i]);
+        }
+    }
+
+    void reset() {
+        Arrays.fill(commands, 0, size, null);
+        size = 0;
+    }
+
+    void setFrame(long frame) {
+        this.frame = frame;
+    }
+}
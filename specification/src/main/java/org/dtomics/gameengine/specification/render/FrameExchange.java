@@ -0,0 +1,88 @@
+package org.dtomics.gameengine.specification.render;
+
+import org.dtomics.gameengine.specification.concurrent.MpscRingBuffer;
+import org.dtomics.gameengine.specification.concurrent.MpscRingBuffer.BackpressurePolicy;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands complete frames from the game thread to the render thread using a fixed pool of
+ * {@link FrameCommandList}s. The render thread always keeps the last frame it consumed, so with
+ * {@code n} buffers the game thread can record up to {@code n - 1} frames ahead before
+ * {@link #begin()} waits for the render thread to release one.
+ */
+public class FrameExchange {
+    private static final int WAIT_SPIN_TRIES = 128;
+    private static final long WAIT_PARK_NANOS = 50_000L;
+
+    private final MpscRingBuffer<FrameCommandList> free;
+    private final MpscRingBuffer<FrameCommandList> published;
+    private FrameCommandList current;
+    private long frames;
+
+    public FrameExchange(int buffers) {
+        if (buffers < 2) {
+            throw new IllegalArgumentException("invalid frame buffer count %d. should be at least two".formatted(buffers));
+        }
+        this.free = new MpscRingBuffer<>(buffers, BackpressurePolicy.BLOCK);
+        this.published = new MpscRingBuffer<>(buffers, BackpressurePolicy.BLOCK);
+        for (int i = 0; i < buffers; i++) {
+            this.free.offer(new FrameCommandList());
+        }
+    }
+
+    /**
+     * Returns an empty command list for the game thread to record into, waiting until the render
+     * thread releases one if every buffer is in flight.
+     */
+    public FrameCommandList begin() {
+        FrameCommandList list;
+        int spins = 0;
+        while ((list = free.poll()) == null) {
+            if (spins++ < WAIT_SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(WAIT_PARK_NANOS);
+            }
+        }
+        list.reset();
+        return list;
+    }
+
+    /**
+     * @return an empty command list, or null if every buffer is in flight
+     */
+    public FrameCommandList tryBegin() {
+        final var list = free.poll();
+        if (list != null) {
+            list.reset();
+        }
+        return list;
+    }
+
+    /**
+     * Publishes a recorded frame. The list must not be touched by the game thread afterwards.
+     */
+    public void publish(FrameCommandList list) {
+        list.setFrame(++frames);
+        published.offer(list);
+    }
+
+    /**
+     * Called by the render thread once per frame. Switches to the newest published frame, releasing
+     * the previous and any stale ones back to the game thread, or keeps the current frame if nothing
+     * new was published.
+     *
+     * @return the frame to render, or null if no frame was ever published
+     */
+    FrameCommandList acquire() {
+        FrameCommandList latest;
+        while ((latest = published.poll()) != null) {
+            if (current != null) {
+                free.offer(current);
+            }
+            current = latest;
+        }
+        return current;
+    }
+}
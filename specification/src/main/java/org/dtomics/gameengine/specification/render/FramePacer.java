@@ -0,0 +1,112 @@
+package org.dtomics.gameengine.specification.render;
+
+import lombok.Getter;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces a loop to a fixed frame time. The calling thread is parked for most of the remaining
+ * frame budget and only spins for the last {@code spinThreshold} nanoseconds, where park
+ * granularity is too coarse to hit the deadline.
+ */
+public class FramePacer {
+    public static final long DEFAULT_SPIN_THRESHOLD = 1_000_000L;
+    private static final int MAX_CATCH_UP_FRAMES = 5;
+
+    public enum MissedFramePolicy {
+        /**
+         * drop the frames that were missed and start the next frame immediately, keeping the original frame phase
+         */
+        SKIP,
+        /**
+         * run the missed frames back to back until the schedule is restored
+         */
+        CATCH_UP
+    }
+
+    @Getter private final long frameTime;
+    @Getter private final MissedFramePolicy policy;
+    private final long spinThreshold;
+
+    private boolean started;
+    private long deadline;
+    /**
+     * deadlines before this one were already counted as missed, catching up does not count them again
+     */
+    private long countedUntil;
+    @Getter private long missedFrames;
+
+    public FramePacer(long frameTime, MissedFramePolicy policy) {
+        this(frameTime, policy, DEFAULT_SPIN_THRESHOLD);
+    }
+
+    public FramePacer(long frameTime, MissedFramePolicy policy, long spinThreshold) {
+        if (frameTime < 0) {
+            throw new IllegalArgumentException("invalid frame time %d. should not be negative".formatted(frameTime));
+        }
+        if (spinThreshold < 0) {
+            throw new IllegalArgumentException("invalid spin threshold %d. should not be negative".formatted(spinThreshold));
+        }
+        this.frameTime = frameTime;
+        this.policy = policy == null ? MissedFramePolicy.SKIP : policy;
+        this.spinThreshold = spinThreshold;
+    }
+
+    /**
+     * A pacer that never waits, for running frames as fast as possible.
+     */
+    public static FramePacer uncapped() {
+        return new FramePacer(0, MissedFramePolicy.SKIP);
+    }
+
+    public boolean isUncapped() {
+        return frameTime == 0;
+    }
+
+    /**
+     * Blocks until the next frame is due. Must always be called from the same thread.
+     */
+    public void awaitNextFrame() {
+        if (frameTime == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!started) {
+            started = true;
+            deadline = now + frameTime;
+            countedUntil = deadline;
+            return;
+        }
+
+        long remaining = deadline - now;
+        if (remaining < 0) {
+            recoverMissedFrames(now);
+        } else {
+            while (remaining > spinThreshold) {
+                LockSupport.parkNanos(remaining - spinThreshold);
+                remaining = deadline - System.nanoTime();
+            }
+            while (deadline - System.nanoTime() > 0) {
+                Thread.onSpinWait();
+            }
+        }
+        deadline += frameTime;
+    }
+
+    private void recoverMissedFrames(long now) {
+        final long missed = (now - deadline) / frameTime;
+        if (missed == 0) {
+            return;
+        }
+        final long first = countedUntil - deadline > 0 ? countedUntil : deadline;
+        if (now - first > 0) {
+            final long counted = (now - first) / frameTime;
+            missedFrames += counted;
+            countedUntil = first + counted * frameTime;
+        }
+        if (policy == MissedFramePolicy.CATCH_UP && missed <= MAX_CATCH_UP_FRAMES) {
+            return;
+        }
+        deadline += missed * frameTime;
+    }
+}
@@ -0,0 +1,33 @@
+package org.dtomics.gameengine.specification.render;
+
+public enum FramePhase {
+    /**
+     * running tasks submitted with {@link RenderThread#submit(java.util.concurrent.Callable)}
+     */
+    TASKS,
+    /**
+     * {@link RenderThread#render(org.dtomics.gameengine.specification.window.Window)} of the implementation
+     */
+    RENDER,
+    /**
+     * rendering the published frame and the submitted renderables
+     */
+    RENDERABLES,
+    /**
+     * swapping the window render buffer
+     */
+    SWAP,
+    /**
+     * {@link RenderThread#afterSwap(org.dtomics.gameengine.specification.window.Window)} of the implementation,
+     * usually waiting for the gpu to bound the frames in flight
+     */
+    GPU_WAIT,
+    /**
+     * all work done for a frame, from the first task to the end of the gpu wait
+     */
+    FRAME,
+    /**
+     * time between the start of two consecutive frames, including pacing
+     */
+    INTERVAL
+}
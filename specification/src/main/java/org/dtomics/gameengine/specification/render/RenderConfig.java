@@ -0,0 +1,28 @@
+package org.dtomics.gameengine.specification.render;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.dtomics.gameengine.specification.concurrent.MpscRingBuffer.BackpressurePolicy;
+
+import java.time.Duration;
+
+@Builder
+@Getter
+public class RenderConfig {
+    @Builder.Default
+    private int renderableCapacity = 1 << 16;
+    @Builder.Default
+    private int taskCapacity = 1 << 10;
+    /**
+     * {@link BackpressurePolicy#BLOCK} must not be used if renderables or tasks are submitted from the render thread itself
+     */
+    @Builder.Default
+    private BackpressurePolicy backpressurePolicy = BackpressurePolicy.GROW;
+    @Builder.Default
+    private int frameBuffers = 2;
+    /**
+     * time per frame for running {@link TaskPriority#NORMAL} and {@link TaskPriority#BACKGROUND} tasks
+     */
+    @Builder.Default
+    private Duration taskBudget = Duration.ofMillis(4);
+}
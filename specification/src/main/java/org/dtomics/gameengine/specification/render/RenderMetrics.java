@@ -0,0 +1,91 @@
+package org.dtomics.gameengine.specification.render;
+
+import org.dtomics.gameengine.specification.metrics.TimingHistogram;
+import org.dtomics.gameengine.specification.metrics.TimingSnapshot;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per phase frame timings of a {@link RenderThread}. Timings are recorded by the render thread and
+ * can be queried from any thread.
+ */
+public class RenderMetrics {
+    private static final FramePhase[] PHASES = FramePhase.values();
+    private static final int PRIORITIES = TaskPriority.values().length;
+
+    private final TimingHistogram[] histograms = new TimingHistogram[PHASES.length];
+    private final AtomicLongArray executedTasks = new AtomicLongArray(PRIORITIES);
+    private final AtomicLongArray deferredTasks = new AtomicLongArray(PRIORITIES);
+    private volatile long budgetExceededFrames;
+    private volatile boolean resetRequested;
+
+    RenderMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new TimingHistogram();
+        }
+    }
+
+    /**
+     * @return the live histogram the render thread records into. Read only: recording into it or resetting it from
+     * another thread races the render thread, use {@link #reset()} or {@link #snapshot(FramePhase)} instead
+     */
+    public TimingHistogram get(FramePhase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    public TimingSnapshot snapshot(FramePhase phase) {
+        return get(phase).snapshot();
+    }
+
+    public long getExecutedTasks(TaskPriority priority) {
+        return executedTasks.get(priority.ordinal());
+    }
+
+    /**
+     * Total of tasks left in the queue by frames whose task budget ran out. A task deferred over several frames is
+     * counted once per frame.
+     */
+    public long getDeferredTasks(TaskPriority priority) {
+        return deferredTasks.get(priority.ordinal());
+    }
+
+    public long getBudgetExceededFrames() {
+        return budgetExceededFrames;
+    }
+
+    /**
+     * Clears all histograms and task counters before the next frame is recorded.
+     */
+    public void reset() {
+        this.resetRequested = true;
+    }
+
+    void record(FramePhase phase, long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    void recordTasks(TaskPriority priority, int executed, int deferred) {
+        final int index = priority.ordinal();
+        executedTasks.lazySet(index, executedTasks.get(index) + executed);
+        deferredTasks.lazySet(index, deferredTasks.get(index) + deferred);
+    }
+
+    void recordBudgetExceeded() {
+        budgetExceededFrames++;
+    }
+
+    void resetIfRequested() {
+        if (!resetRequested) {
+            return;
+        }
+        resetRequested = false;
+        for (final var histogram : histograms) {
+            histogram.reset();
+        }
+        for (int i = 0; i < PRIORITIES; i++) {
+            executedTasks.lazySet(i, 0);
+            deferredTasks.lazySet(i, 0);
+        }
+        budgetExceededFrames = 0;
+    }
+}
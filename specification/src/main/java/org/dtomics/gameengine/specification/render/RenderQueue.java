@@ -0,0 +1,134 @@
+package org.dtomics.gameengine.specification.render;
+
+import org.dtomics.gameengine.specification.window.Window;
+
+import java.util.Arrays;
+
+/**
+ * Collects the renderables of one frame with their {@link SortKey sort keys} and executes them in
+ * key order. Keys are sorted with a stable least significant byte radix sort over primitive arrays,
+ * renderables with equal keys keep their submission order. Passes over bytes that are the same in
+ * every key are skipped, so a frame of unkeyed renderables costs one histogram pass. Once the
+ * arrays have grown to the largest frame nothing is allocated. Not thread safe.
+ */
+public class RenderQueue {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+    private Renderable[] renderables = new Renderable[DEFAULT_CAPACITY];
+    private long[] keys = new long[DEFAULT_CAPACITY];
+    private int[] order = new int[DEFAULT_CAPACITY];
+    private long[] keyScratch = new long[DEFAULT_CAPACITY];
+    private int[] orderScratch = new int[DEFAULT_CAPACITY];
+    private final int[] counts = new int[PASSES * RADIX];
+    private int size;
+
+    public void add(Renderable renderable) {
+        this.add(renderable, renderable.sortKey());
+    }
+
+    public void add(Renderable renderable, long key) {
+        if (size == renderables.length) {
+            grow();
+        }
+        renderables[size] = renderable;
+        keys[size] = key;
+        order[size] = size;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Sorts the queued renderables, renders them and empties the queue.
+     */
+    public void execute(Window window) {
+        sort();
+        for (int i = 0; i < size; i++) {
+            renderables[order[i]].render(window);
+        }
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(renderables, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Sorts the keys as unsigned longs, afterwards {@link #renderableAt(int)} walks the queue in key order.
+     */
+    public void sort() {
+        if (size < 2) {
+            return;
+        }
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < size; i++) {
+            final long key = keys[i];
+            for (int pass = 0; pass < PASSES; pass++) {
+                counts[pass * RADIX + ((int) (key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
+        }
+
+        for (int pass = 0; pass < PASSES; pass++) {
+            final int base = pass * RADIX;
+            final int shift = pass * RADIX_BITS;
+            if (counts[base + ((int) (keys[0] >>> shift) & (RADIX - 1))] == size) {
+                continue;
+            }
+            int offset = 0;
+            for (int bucket = 0; bucket < RADIX; bucket++) {
+                final int count = counts[base + bucket];
+                counts[base + bucket] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < size; i++) {
+                final long key = keys[i];
+                final int target = counts[base + ((int) (key >>> shift) & (RADIX - 1))]++;
+                keyScratch[target] = key;
+                orderScratch[target] = order[i];
+            }
+            swapScratch();
+        }
+    }
+
+    public Renderable renderableAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("invalid index %d. queue size is %d".formatted(index, size));
+        }
+        return renderables[order[index]];
+    }
+
+    public long keyAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("invalid index %d. queue size is %d".formatted(index, size));
+        }
+        return keys[index];
+    }
+
+    private void swapScratch() {
+        final var sortedKeys = keyScratch;
+        keyScratch = keys;
+        keys = sortedKeys;
+        final var sortedOrder = orderScratch;
+        orderScratch = order;
+        order = sortedOrder;
+    }
+
+    private void grow() {
+        final int capacity = renderables.length << 1;
+        renderables = Arrays.copyOf(renderables, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        order = Arrays.copyOf(order, capacity);
+        keyScratch = new long[capacity];
+        orderScratch = new int[capacity];
+    }
+}
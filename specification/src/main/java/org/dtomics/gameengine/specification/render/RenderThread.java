@@ -1,37 +1,64 @@
 package org.dtomics.gameengine.specification.render;
 
 import lombok.Getter;
+import org.dtomics.gameengine.specification.concurrent.MpscRingBuffer;
 import org.dtomics.gameengine.specification.window.Window;
 
-import java.util.concurrent.*;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
 
 public abstract class RenderThread extends Thread {
     private static final String THREAD_NAME = "render";
     private static final int DEFAULT_FRAME_CAP = 60;
-    private static final int ONE_SECOND_IN_MILLI = 1000;
     private static final int ONE_SECOND_IN_NANO = 1000_000_000;
 
 
     protected abstract void init(Window window);
     protected abstract void render(Window window);
 
+    /**
+     * Called right after the render buffer was swapped, the place to throttle the cpu against the gpu.
+     */
+    protected void afterSwap(Window window) {
+    }
+
+    /**
+     * Called on the render thread after the last frame, the place to release what {@link #init(Window)} created.
+     */
+    protected void dispose(Window window) {
+    }
+
     private final Window window;
-    @Getter private int framesPerSecond = 0;
+    @Getter private volatile int framesPerSecond = 0;
+    @Getter private final RenderMetrics metrics = new RenderMetrics();
 
     private volatile boolean closed;
-    private double frameTimeCap = (double) ONE_SECOND_IN_NANO / (double) DEFAULT_FRAME_CAP;
+    private volatile FramePacer framePacer = new FramePacer(
+            ONE_SECOND_IN_NANO / DEFAULT_FRAME_CAP,
+            FramePacer.MissedFramePolicy.SKIP
+    );
 
-    private final Object renderableLock = new Object();
-    private final BlockingQueue<Renderable> renderables;
-    private final BlockingQueue<Renderable> renderBuffer;
-    private final BlockingQueue<FutureTask<?>> tasks;
+    private final MpscRingBuffer<Renderable> renderables;
+    private final MpscRingBuffer<FutureTask<?>>[] tasks;
+    private volatile long taskBudget;
+    private final RenderQueue renderQueue = new RenderQueue();
+    private final Consumer<Renderable> enqueueAction = renderQueue::add;
+    private final FrameExchange frameExchange;
 
     public RenderThread(Window window) {
+        this(window, RenderConfig.builder().build());
+    }
+
+    public RenderThread(Window window, RenderConfig config) {
         super(THREAD_NAME);
         this.window = window;
-        this.renderables = new LinkedBlockingDeque<>();
-        this.renderBuffer = new LinkedBlockingQueue<>();
-        this.tasks = new LinkedBlockingDeque<>();
+        this.renderables = new MpscRingBuffer<>(config.getRenderableCapacity(), config.getBackpressurePolicy());
+        this.tasks = createTaskQueues(config);
+        this.setTaskBudget(config.getTaskBudget());
+        this.frameExchange = new FrameExchange(config.getFrameBuffers());
     }
 
     @Override
@@ -41,43 +68,78 @@ public abstract class RenderThread extends Thread {
         this.init(window);
 
         int frames = 0;
-        double deltaFrame = 0;
-
-        long previousTime = System.nanoTime();
-        long lastCheck = System.currentTimeMillis();
+        long lastCheck = System.nanoTime();
+        long previousFrameStart = 0;
 
         while (!closed) {
-            long currentTime = System.nanoTime();
-            deltaFrame += (currentTime - previousTime) / frameTimeCap;
-            previousTime = currentTime;
-            if (deltaFrame >= 1.0) {
-                this.flushTasks();
-                this.render(window);
-                this.flushRenderables();
-                window.updateRenderBuffer();
-                deltaFrame--;
-                frames++;
+            this.framePacer.awaitNextFrame();
+            metrics.resetIfRequested();
+
+            final long frameStart = System.nanoTime();
+            if (previousFrameStart != 0) {
+                metrics.record(FramePhase.INTERVAL, frameStart - previousFrameStart);
             }
+            previousFrameStart = frameStart;
+
+            this.flushTasks();
+            final long tasksEnd = System.nanoTime();
+            this.render(window);
+            final long renderEnd = System.nanoTime();
+            this.flushRenderables();
+            final long renderablesEnd = System.nanoTime();
+            window.updateRenderBuffer();
+            final long swapEnd = System.nanoTime();
+            this.afterSwap(window);
+            final long frameEnd = System.nanoTime();
+            frames++;
 
-            if (System.currentTimeMillis() - lastCheck >= ONE_SECOND_IN_MILLI) {
-                lastCheck = System.currentTimeMillis();
-                System.out.println("frames " + this.framesPerSecond);
+            metrics.record(FramePhase.TASKS, tasksEnd - frameStart);
+            metrics.record(FramePhase.RENDER, renderEnd - tasksEnd);
+            metrics.record(FramePhase.RENDERABLES, renderablesEnd - renderEnd);
+            metrics.record(FramePhase.SWAP, swapEnd - renderablesEnd);
+            metrics.record(FramePhase.GPU_WAIT, frameEnd - swapEnd);
+            metrics.record(FramePhase.FRAME, frameEnd - frameStart);
+
+            if (frameEnd - lastCheck >= ONE_SECOND_IN_NANO) {
+                lastCheck = frameEnd;
                 this.framesPerSecond = frames;
                 frames = 0;
             }
         }
+
+        this.dispose(window);
+    }
+
+    /**
+     * @return false if the renderable was dropped because the queue is full
+     */
+    public boolean submit(Renderable renderable) {
+        return this.renderables.offer(renderable);
+    }
+
+    /**
+     * Returns a command list to record the next frame into. Blocks while every frame buffer is in flight.
+     */
+    public FrameCommandList beginFrame() {
+        return this.frameExchange.begin();
     }
 
-    public void submit(Renderable renderable) {
-        this.renderables.add(renderable);
+    /**
+     * Publishes a frame recorded into a list from {@link #beginFrame()}. The render thread renders the newest
+     * published frame, and keeps rendering it until a newer one is published.
+     */
+    public void publishFrame(FrameCommandList frame) {
+        this.frameExchange.publish(frame);
     }
 
     public <T> Future<T> submit(Callable<T> callable) {
+        return this.submit(callable, TaskPriority.NORMAL);
+    }
+
+    public <T> Future<T> submit(Callable<T> callable, TaskPriority priority) {
         final var task = new FutureTask<T>(callable);
-        try {
-            this.tasks.put(task);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+        if (!this.tasks[priority.ordinal()].offer(task)) {
+            task.cancel(false);
         }
         return task;
     }
@@ -89,41 +151,110 @@ public abstract class RenderThread extends Thread {
 
     public void cleanUp() {
         try {
-            this.renderables.clear();
             this.join();
+            this.renderables.clear();
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
 
     public void setFrameCap(int frameCap) {
+        this.setFrameCap(frameCap, this.framePacer.getPolicy());
+    }
+
+    public void setFrameCap(int frameCap, FramePacer.MissedFramePolicy policy) {
         if (frameCap <= 0) {
             throw new IllegalArgumentException("invalid frame cap %d. should be greater than zero".formatted(frameCap));
         }
-        this.frameTimeCap = (double) ONE_SECOND_IN_NANO / (double) frameCap;
+        this.framePacer = new FramePacer(ONE_SECOND_IN_NANO / frameCap, policy);
     }
 
+    /**
+     * Renders frames back to back without any pacing, to measure maximum throughput.
+     */
+    public void setUncapped() {
+        this.framePacer = FramePacer.uncapped();
+    }
+
+    public long getMissedFrames() {
+        return this.framePacer.getMissedFrames();
+    }
+
+    public long getDroppedRenderables() {
+        return this.renderables.getDropped();
+    }
+
+    public long getDroppedTasks() {
+        long dropped = 0;
+        for (final var queue : this.tasks) {
+            dropped += queue.getDropped();
+        }
+        return dropped;
+    }
+
+    public int getTaskQueueDepth(TaskPriority priority) {
+        return this.tasks[priority.ordinal()].size();
+    }
+
+    public void setTaskBudget(Duration taskBudget) {
+        if (taskBudget == null || taskBudget.isNegative()) {
+            throw new IllegalArgumentException("invalid task budget %s. should not be negative".formatted(taskBudget));
+        }
+        this.taskBudget = taskBudget.toNanos();
+    }
+
+    /**
+     * Runs every urgent task, then normal and background tasks until the task budget is used up. Each priority runs
+     * at least one task per frame so a single long task can not starve the ones behind it forever.
+     */
     private void flushTasks() {
-        while (!tasks.isEmpty()) {
-            try {
-                tasks.take().run();
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+        final var urgent = tasks[TaskPriority.URGENT.ordinal()];
+        metrics.recordTasks(TaskPriority.URGENT, urgent.drain(FutureTask::run), 0);
+
+        final long deadline = System.nanoTime() + taskBudget;
+        final boolean normalFinished = runUntil(TaskPriority.NORMAL, deadline);
+        final boolean backgroundFinished = runUntil(TaskPriority.BACKGROUND, deadline);
+        if (!normalFinished || !backgroundFinished) {
+            metrics.recordBudgetExceeded();
         }
     }
 
-    private void flushRenderables() {
-        synchronized (renderableLock) {
-            renderables.drainTo(this.renderBuffer);
+    /**
+     * @return false if tasks were left in the queue because the deadline passed
+     */
+    private boolean runUntil(TaskPriority priority, long deadline) {
+        final var queue = tasks[priority.ordinal()];
+        int executed = 0;
+        FutureTask<?> task;
+        while ((executed == 0 || System.nanoTime() - deadline < 0) && (task = queue.poll()) != null) {
+            task.run();
+            executed++;
         }
-        while (!this.renderBuffer.isEmpty()) {
-            try {
-                this.renderBuffer.take().render(window);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+        final int deferred = queue.size();
+        metrics.recordTasks(priority, executed, deferred);
+        return deferred == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MpscRingBuffer<FutureTask<?>>[] createTaskQueues(RenderConfig config) {
+        final var priorities = TaskPriority.values();
+        final var queues = (MpscRingBuffer<FutureTask<?>>[]) new MpscRingBuffer<?>[priorities.length];
+        for (final var priority : priorities) {
+            queues[priority.ordinal()] = new MpscRingBuffer<>(config.getTaskCapacity(), config.getBackpressurePolicy());
+        }
+        return queues;
+    }
+
+    /**
+     * Renders the current frame and the submitted renderables together in sort key order.
+     */
+    private void flushRenderables() {
+        final var frame = frameExchange.acquire();
+        if (frame != null) {
+            frame.enqueue(renderQueue);
         }
+        renderables.drain(this.enqueueAction);
+        renderQueue.execute(window);
     }
 
 }
@@ -4,4 +4,12 @@ import org.dtomics.gameengine.specification.window.Window;
 
 public interface Renderable {
     void render(Window window);
+
+    /**
+     * Key the render thread orders renderables by, see {@link SortKey}. Renderables with equal keys render in
+     * submission order.
+     */
+    default long sortKey() {
+        return 0;
+    }
 }
@@ -0,0 +1,76 @@
+package org.dtomics.gameengine.specification.render;
+
+/**
+ * Packs the state a {@link Renderable} needs into a 64 bit key, so sorting the keys groups draws
+ * that share state. Keys compare as unsigned longs, from the most significant bits:
+ * <pre>
+ * opaque:      layer(4) translucent=0(1) shader(12) material(16) depth(24)
+ * translucent: layer(4) translucent=1(1) inverted depth(24) shader(12) material(16)
+ * </pre>
+ * Opaque draws are grouped by state and drawn front to back to cut overdraw, translucent draws
+ * come after them and are drawn back to front so blending is correct. Fields wider than their bit
+ * range are masked.
+ */
+public final class SortKey {
+    public static final int LAYER_BITS = 4;
+    public static final int SHADER_BITS = 12;
+    public static final int MATERIAL_BITS = 16;
+    public static final int DEPTH_BITS = 24;
+    public static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+    private static final int LAYER_SHIFT = 60;
+    private static final long TRANSLUCENT_BIT = 1L << 59;
+
+    private static final int OPAQUE_SHADER_SHIFT = 47;
+    private static final int OPAQUE_MATERIAL_SHIFT = 31;
+    private static final int OPAQUE_DEPTH_SHIFT = 7;
+
+    private static final int TRANSLUCENT_DEPTH_SHIFT = 35;
+    private static final int TRANSLUCENT_SHADER_SHIFT = 23;
+    private static final int TRANSLUCENT_MATERIAL_SHIFT = 7;
+
+    private SortKey() {
+    }
+
+    public static long opaque(int layer, int shader, int material, int depth) {
+        return layer(layer)
+                | field(shader, SHADER_BITS) << OPAQUE_SHADER_SHIFT
+                | field(material, MATERIAL_BITS) << OPAQUE_MATERIAL_SHIFT
+                | field(depth, DEPTH_BITS) << OPAQUE_DEPTH_SHIFT;
+    }
+
+    public static long translucent(int layer, int shader, int material, int depth) {
+        return layer(layer)
+                | TRANSLUCENT_BIT
+                | (MAX_DEPTH - field(depth, DEPTH_BITS)) << TRANSLUCENT_DEPTH_SHIFT
+                | field(shader, SHADER_BITS) << TRANSLUCENT_SHADER_SHIFT
+                | field(material, MATERIAL_BITS) << TRANSLUCENT_MATERIAL_SHIFT;
+    }
+
+    /**
+     * Maps a view space distance between {@code near} and {@code far} to the depth range of a key.
+     */
+    public static int depth(float distance, float near, float far) {
+        final float normalized = (distance - near) / (far - near);
+        if (!(normalized > 0f)) {
+            return 0;
+        }
+        return normalized >= 1f ? MAX_DEPTH : (int) (normalized * MAX_DEPTH);
+    }
+
+    public static boolean isTranslucent(long key) {
+        return (key & TRANSLUCENT_BIT) != 0;
+    }
+
+    public static int layerOf(long key) {
+        return (int) (key >>> LAYER_SHIFT);
+    }
+
+    private static long layer(int layer) {
+        return field(layer, LAYER_BITS) << LAYER_SHIFT;
+    }
+
+    private static long field(int value, int bits) {
+        return value & ((1L << bits) - 1);
+    }
+}
@@ -0,0 +1,16 @@
+package org.dtomics.gameengine.specification.render;
+
+public enum TaskPriority {
+    /**
+     * always run in the frame they were submitted for, regardless of the task budget
+     */
+    URGENT,
+    /**
+     * run while the frame task budget lasts, leftovers are deferred to the next frame
+     */
+    NORMAL,
+    /**
+     * run with whatever budget normal tasks left over
+     */
+    BACKGROUND
+}
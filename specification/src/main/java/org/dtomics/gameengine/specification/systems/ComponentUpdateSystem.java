@@ -0,0 +1,48 @@
+package org.dtomics.gameengine.specification.systems;
+
+import org.dtomics.gameengine.specification.components.Component;
+import org.dtomics.gameengine.specification.components.Query;
+import org.dtomics.gameengine.specification.components.World;
+import org.dtomics.gameengine.specification.window.Window;
+
+import java.util.Set;
+
+/**
+ * Runs {@link Component#update(Window)} of every component of one class, so existing component
+ * logic can be scheduled next to other systems. The update may only touch its own component.
+ */
+public class ComponentUpdateSystem<T extends Component> implements EntitySystem {
+
+    private final Class<T> componentClass;
+    private Query query;
+    private World world;
+
+    public ComponentUpdateSystem(Class<T> componentClass) {
+        this.componentClass = componentClass;
+    }
+
+    @Override
+    public void update(World world, Window window) {
+        if (this.world != world) {
+            this.world = world;
+            this.query = world.query(componentClass);
+        }
+        for (int a = 0, count = query.archetypeCount(); a < count; a++) {
+            final var archetype = query.archetypeAt(a);
+            final var column = archetype.column(archetype.columnOf(componentClass));
+            for (int row = 0; row < archetype.size(); row++) {
+                column[row].update(window);
+            }
+        }
+    }
+
+    @Override
+    public Set<Class<? extends Component>> writes() {
+        return Set.of(componentClass);
+    }
+
+    @Override
+    public String name() {
+        return "update " + componentClass.getSimpleName();
+    }
+}
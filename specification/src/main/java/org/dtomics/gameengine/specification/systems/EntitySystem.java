@@ -0,0 +1,29 @@
+package org.dtomics.gameengine.specification.systems;
+
+import org.dtomics.gameengine.specification.components.Component;
+import org.dtomics.gameengine.specification.components.World;
+import org.dtomics.gameengine.specification.window.Window;
+
+import java.util.Set;
+
+/**
+ * Update logic over the components of a {@link World}. A system has to declare every component
+ * type it reads or writes, the {@link SystemScheduler} uses them to decide which systems may run
+ * at the same time. A system must not add or remove components or entities while it runs.
+ */
+public interface EntitySystem {
+
+    void update(World world, Window window);
+
+    default Set<Class<? extends Component>> reads() {
+        return Set.of();
+    }
+
+    default Set<Class<? extends Component>> writes() {
+        return Set.of();
+    }
+
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,184 @@
+package org.dtomics.gameengine.specification.systems;
+
+import org.dtomics.gameengine.specification.components.Component;
+import org.dtomics.gameengine.specification.components.ComponentMask;
+import org.dtomics.gameengine.specification.components.World;
+import org.dtomics.gameengine.specification.metrics.TimingHistogram;
+import org.dtomics.gameengine.specification.window.Window;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs {@link EntitySystem}s on a fork join pool. Systems are split into stages in registration
+ * order: a system is placed one stage after the last earlier system it conflicts with, two systems
+ * conflict when one writes a component type the other reads or writes. Systems in a stage run in
+ * parallel, stages run one after the other, so conflicting systems always run in registration
+ * order.
+ */
+public class SystemScheduler {
+
+    private final ForkJoinPool pool;
+    private final List<SystemTask> systems = new ArrayList<>();
+    private StageTask[] stages = new StageTask[0];
+    private boolean dirty;
+
+    private World world;
+    private Window window;
+
+    public SystemScheduler() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SystemScheduler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void add(EntitySystem system) {
+        if (system == null) {
+            return;
+        }
+        systems.add(new SystemTask(system));
+        dirty = true;
+    }
+
+    public void run(World world, Window window) {
+        if (dirty) {
+            buildStages();
+        }
+        this.world = world;
+        this.window = window;
+        for (final var stage : stages) {
+            stage.execute();
+        }
+        this.world = null;
+        this.window = null;
+    }
+
+    public int stageCount() {
+        if (dirty) {
+            buildStages();
+        }
+        return stages.length;
+    }
+
+    /**
+     * @return the stage the system runs in, or -1 if it is not registered
+     */
+    public int stageOf(EntitySystem system) {
+        if (dirty) {
+            buildStages();
+        }
+        final var task = find(system);
+        return task == null ? -1 : task.stage;
+    }
+
+    /**
+     * @return update timings of the system, or null if it is not registered
+     */
+    public TimingHistogram timing(EntitySystem system) {
+        final var task = find(system);
+        return task == null ? null : task.timing;
+    }
+
+    private SystemTask find(EntitySystem system) {
+        for (final var task : systems) {
+            if (task.system == system) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private void buildStages() {
+        int stageCount = 0;
+        for (int i = 0; i < systems.size(); i++) {
+            final var task = systems.get(i);
+            task.stage = 0;
+            for (int j = 0; j < i; j++) {
+                final var earlier = systems.get(j);
+                if (task.conflictsWith(earlier)) {
+                    task.stage = Math.max(task.stage, earlier.stage + 1);
+                }
+            }
+            stageCount = Math.max(stageCount, task.stage + 1);
+        }
+
+        final var stageSystems = new ArrayList<List<SystemTask>>();
+        for (int i = 0; i < stageCount; i++) {
+            stageSystems.add(new ArrayList<>());
+        }
+        for (final var task : systems) {
+            stageSystems.get(task.stage).add(task);
+        }
+        this.stages = new StageTask[stageCount];
+        for (int i = 0; i < stageCount; i++) {
+            this.stages[i] = new StageTask(stageSystems.get(i).toArray(SystemTask[]::new));
+        }
+        dirty = false;
+    }
+
+    private static ComponentMask maskOf(Collection<Class<? extends Component>> types) {
+        return types == null ? ComponentMask.EMPTY : ComponentMask.of(types.toArray(Class<?>[]::new));
+    }
+
+    private final class StageTask extends RecursiveAction {
+        private final SystemTask[] tasks;
+
+        private StageTask(SystemTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        private void execute() {
+            if (tasks.length == 1) {
+                tasks[0].runSystem();
+                return;
+            }
+            this.reinitialize();
+            pool.invoke(this);
+        }
+
+        @Override
+        protected void compute() {
+            for (final var task : tasks) {
+                task.reinitialize();
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+
+    private final class SystemTask extends RecursiveAction {
+        private final EntitySystem system;
+        private final ComponentMask reads;
+        private final ComponentMask writes;
+        private final TimingHistogram timing = new TimingHistogram();
+        private int stage;
+
+        private SystemTask(EntitySystem system) {
+            this.system = system;
+            this.reads = maskOf(system.reads());
+            this.writes = maskOf(system.writes());
+        }
+
+        private boolean conflictsWith(SystemTask other) {
+            return writes.intersects(other.writes)
+                    || writes.intersects(other.reads)
+                    || reads.intersects(other.writes);
+        }
+
+        private void runSystem() {
+            final long start = System.nanoTime();
+            system.update(world, window);
+            timing.record(System.nanoTime() - start);
+        }
+
+        @Override
+        protected void compute() {
+            runSystem();
+        }
+    }
+}
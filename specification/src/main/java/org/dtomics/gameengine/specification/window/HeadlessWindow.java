@@ -0,0 +1,206 @@
+package org.dtomics.gameengine.specification.window;
+
+import lombok.NonNull;
+import org.dtomics.gameengine.specification.events.EventBus;
+import org.dtomics.gameengine.specification.events.EventType;
+import org.dtomics.gameengine.specification.events.InputEventQueue;
+import org.dtomics.gameengine.specification.events.InputEvents;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Window without a display or graphics context. Swapping the render buffer only counts frames, and
+ * events are injected by the caller instead of coming from a windowing system, which makes it
+ * possible to measure engine overhead on machines without a gpu.
+ * <p>
+ * Events are encoded with {@link InputEvents} and posted with {@link #post(long)} from any thread.
+ * Posted events wait in a locked list until {@link #pollEvents()} or {@link #waitEvents(Duration)}
+ * moves them into {@link #events()}, so the thread pumping events stays the only producer of that
+ * single-producer queue, like with a real window. Handlers registered with {@link #on(EventType, Object)}
+ * receive them on {@link #dispatchEvents()}.
+ */
+public class HeadlessWindow implements Window {
+
+    private final List<ScheduledEvent> scheduledEvents = new ArrayList<>();
+    private final InputEventQueue inputEvents = new InputEventQueue();
+    private final EventBus bus = new EventBus();
+
+    private WindowConfig configuration;
+    private volatile WindowState state;
+    private volatile boolean created;
+    private volatile boolean exitRequested;
+    private volatile long frames;
+    private volatile long closeAtFrame = Long.MAX_VALUE;
+    private volatile Thread waiter;
+    private volatile boolean woken;
+
+    @Override
+    public <H> void on(@NonNull EventType<H> type, @NonNull H handler) {
+        bus.subscribe(type, handler);
+    }
+
+    /**
+     * Queues an encoded event on the next {@link #pollEvents()} and wakes up a thread waiting for events.
+     * Can be called from any thread.
+     */
+    public void post(long event) {
+        synchronized (scheduledEvents) {
+            scheduledEvents.add(new ScheduledEvent(Long.MIN_VALUE, event));
+        }
+        wakeUp();
+    }
+
+    /**
+     * Queues an encoded event on the first {@link #pollEvents()} after the given number of frames were swapped.
+     */
+    public void postAfterFrames(long frames, long event) {
+        synchronized (scheduledEvents) {
+            scheduledEvents.add(new ScheduledEvent(this.frames + frames, event));
+        }
+    }
+
+    /**
+     * Publishes a new framebuffer size and posts the matching resize event, like a user resizing a real window.
+     */
+    public synchronized void resize(int width, int height) {
+        this.state = state().withSize(width, height);
+        post(InputEvents.resize(width, height));
+    }
+
+    /**
+     * Requests the window to close once the given number of frames were swapped.
+     */
+    public void closeAfterFrames(long frames) {
+        this.closeAtFrame = this.frames + frames;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    @Override
+    public void create() {
+        this.created = true;
+    }
+
+    @Override
+    public void close() {
+        this.exitRequested = true;
+        wakeUp();
+    }
+
+    @Override
+    public void cleanUp() {
+        this.created = false;
+        synchronized (scheduledEvents) {
+            scheduledEvents.clear();
+        }
+    }
+
+    @Override
+    public boolean exitRequested() {
+        return this.exitRequested;
+    }
+
+    @Override
+    public void useCurrent() {
+    }
+
+    @Override
+    public void updateRenderBuffer() {
+        if (++frames >= closeAtFrame) {
+            close();
+        }
+    }
+
+    @Override
+    public void pollEvents() {
+        if (!created) {
+            return;
+        }
+        synchronized (scheduledEvents) {
+            for (int i = 0; i < scheduledEvents.size(); i++) {
+                final var scheduled = scheduledEvents.get(i);
+                if (scheduled.frame() <= frames) {
+                    inputEvents.offer(scheduled.event());
+                    scheduledEvents.remove(i--);
+                }
+            }
+        }
+    }
+
+    /**
+     * Events scheduled with {@link #postAfterFrames(long, long)} are only picked up when the wait returns, so they
+     * can be late by up to the timeout.
+     */
+    @Override
+    public void waitEvents(@NonNull Duration timeout) {
+        if (!created) {
+            return;
+        }
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        this.waiter = Thread.currentThread();
+        try {
+            pollEvents();
+            long remaining;
+            while (!woken && !exitRequested && inputEvents.isEmpty() && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+                pollEvents();
+            }
+        } finally {
+            this.waiter = null;
+            this.woken = false;
+        }
+    }
+
+    @Override
+    public void wakeUp() {
+        this.woken = true;
+        final var waiter = this.waiter;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public InputEventQueue events() {
+        return inputEvents;
+    }
+
+    @Override
+    public EventBus bus() {
+        return bus;
+    }
+
+    @Override
+    public WindowState state() {
+        final var state = this.state;
+        return state != null ? state : WindowState.of(config());
+    }
+
+    @Override
+    public WindowConfig config() {
+        if (this.configuration == null) {
+            this.configuration = WindowConfig.builder()
+                    .width(640)
+                    .height(480)
+                    .build();
+        }
+        return this.configuration;
+    }
+
+    @Override
+    public synchronized void config(WindowConfig configuration) {
+        this.configuration = configuration;
+        this.state = state()
+                .withSize(configuration.getWidth(), configuration.getHeight())
+                .withVsync(configuration.isVsync())
+                .withFullscreen(configuration.isFullscreen());
+    }
+
+    private record ScheduledEvent(long frame, long event) {
+    }
+}
@@ -0,0 +1,16 @@
+package org.dtomics.gameengine.specification.window;
+
+public class HeadlessWindowFactory extends WindowFactory<HeadlessWindow> {
+
+    public HeadlessWindowFactory() {
+        super(HeadlessWindow.class);
+    }
+
+    @Override
+    protected HeadlessWindow create(WindowConfig config) {
+        final var window = new HeadlessWindow();
+        window.config(config);
+        window.create();
+        return window;
+    }
+}
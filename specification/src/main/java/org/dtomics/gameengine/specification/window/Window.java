@@ -1,7 +1,11 @@
 package org.dtomics.gameengine.specification.window;
 
+import org.dtomics.gameengine.specification.events.EventBus;
+import org.dtomics.gameengine.specification.events.InputEventQueue;
 import org.dtomics.gameengine.specification.events.Listener;
 
+import java.time.Duration;
+
 public interface Window extends Listener {
 
     void create();
@@ -18,6 +22,43 @@ public interface Window extends Listener {
 
     void pollEvents();
 
+    /**
+     * Like {@link #pollEvents()}, but blocks until input arrives, {@link #wakeUp()} is called or the timeout
+     * passed, so an idle main loop does not spin. Must be called on the same thread as {@link #pollEvents()}.
+     */
+    void waitEvents(Duration timeout);
+
+    /**
+     * Makes a pending or the next {@link #waitEvents(Duration)} return early. Can be called from any thread.
+     */
+    void wakeUp();
+
+    /**
+     * Input recorded by {@link #pollEvents()}, encoded with {@link org.dtomics.gameengine.specification.events.InputEvents}.
+     * Drained by the game thread once per tick.
+     */
+    InputEventQueue events();
+
+    /**
+     * Bus that handlers registered with {@link #on} are subscribed to.
+     */
+    EventBus bus();
+
+    /**
+     * Delivers the input recorded since the last call to the handlers registered with {@link #on}, on the
+     * calling thread.
+     *
+     * @return number of input events drained
+     */
+    default int dispatchEvents() {
+        return bus().dispatch(events());
+    }
+
+    /**
+     * Latest published state of the window. Can be read from any thread, the snapshot itself never changes.
+     */
+    WindowState state();
+
     WindowConfig config();
 
     void config(WindowConfig configuration);
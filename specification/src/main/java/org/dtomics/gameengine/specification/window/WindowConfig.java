@@ -4,6 +4,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
+import java.time.Duration;
+
 @Builder
 @Data
 @Accessors(chain = true)
@@ -25,4 +27,9 @@ public class WindowConfig {
     private boolean resizable = true;
     @Builder.Default
     private boolean fullscreen = false;
+    /**
+     * longest time {@link Window#waitEvents(Duration)} is given to block the main loop
+     */
+    @Builder.Default
+    private Duration inputLatency = Duration.ofMillis(10);
 }
@@ -24,6 +24,10 @@ public abstract class WindowFactory<W extends Window> {
 
     private static final Map<Class<? extends Window>, WindowFactory<? extends Window>> windowFactoryCache = new HashMap<>();
 
+    static {
+        new HeadlessWindowFactory();
+    }
+
     public static <T extends Window> void register(final Class<T> clz, WindowFactory<T> factory) {
         windowFactoryCache.put(clz, factory);
     }
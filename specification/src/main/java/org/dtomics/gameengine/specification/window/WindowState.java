@@ -0,0 +1,34 @@
+package org.dtomics.gameengine.specification.window;
+
+/**
+ * Immutable snapshot of the window state the render thread depends on. Every change is published as
+ * a new snapshot with a higher version, so a reader only has to compare versions to know whether
+ * anything changed since it last looked. Sizes are framebuffer sizes in pixels.
+ */
+public record WindowState(long version, int width, int height, boolean vsync, boolean fullscreen) {
+
+    public static WindowState of(WindowConfig config) {
+        return new WindowState(0, config.getWidth(), config.getHeight(), config.isVsync(), config.isFullscreen());
+    }
+
+    public WindowState withSize(int width, int height) {
+        if (width == this.width && height == this.height) {
+            return this;
+        }
+        return new WindowState(version + 1, width, height, vsync, fullscreen);
+    }
+
+    public WindowState withVsync(boolean vsync) {
+        if (vsync == this.vsync) {
+            return this;
+        }
+        return new WindowState(version + 1, width, height, vsync, fullscreen);
+    }
+
+    public WindowState withFullscreen(boolean fullscreen) {
+        if (fullscreen == this.fullscreen) {
+            return this;
+        }
+        return new WindowState(version + 1, width, height, vsync, fullscreen);
+    }
+}
@@ -0,0 +1,80 @@
+package org.dtomics.gameengine.specification.components;
+
+import org.dtomics.gameengine.specification.window.Window;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class WorldTest {
+    private static final List<String> updates = new ArrayList<>();
+
+    private abstract static class Recording implements Component {
+        private final String entity;
+
+        Recording(String entity) {
+            this.entity = entity;
+        }
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void update(Window window) {
+            updates.add(entity + ":" + getClass().getSimpleName());
+        }
+    }
+
+    private static final class First extends Recording {
+        First(String entity) {
+            super(entity);
+        }
+    }
+
+    private static final class Second extends Recording {
+        Second(String entity) {
+            super(entity);
+        }
+    }
+
+    @Test
+    public void updatesColumnByColumnInTypeIdOrder() {
+        ComponentType.idOf(First.class);
+        ComponentType.idOf(Second.class);
+        final var world = new World();
+        final var a = world.spawn("a");
+        final var b = world.spawn("b");
+        a.addComponent(new Second("a"));
+        a.addComponent(new First("a"));
+        b.addComponent(new First("b"));
+        b.addComponent(new Second("b"));
+
+        updates.clear();
+        world.update(null);
+        assertEquals(List.of("a:First", "b:First", "a:Second", "b:Second"), updates);
+
+        updates.clear();
+        a.update(null);
+        assertEquals(List.of("a:First", "a:Second"), updates);
+    }
+
+    @Test
+    public void addingSameClassReplacesAndRemovingBySuperTypeDetaches() {
+        final var world = new World();
+        final var entity = world.spawn("e");
+        final var first = new First("e");
+        entity.addComponent(new First("e"));
+        entity.addComponent(first);
+        assertSame(first, entity.getComponent(First.class));
+        assertSame(first, entity.getComponent(Recording.class));
+
+        entity.removeComponent(Recording.class);
+        assertNull(entity.getComponent(First.class));
+        assertEquals(1, world.size());
+    }
+}
@@ -0,0 +1,130 @@
+package org.dtomics.gameengine.specification.concurrent;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void singleSlotCapacityKeepsBothElements() {
+        final var ring = new MpscRingBuffer<String>(1, MpscRingBuffer.BackpressurePolicy.DROP);
+        assertTrue(ring.offer("a"));
+        assertTrue(ring.offer("b"));
+        assertEquals("a", ring.poll());
+        assertEquals("b", ring.poll());
+        assertNull(ring.poll());
+    }
+
+    @Test
+    public void dropPolicyRejectsWhenFull() {
+        final var ring = new MpscRingBuffer<Integer>(2, MpscRingBuffer.BackpressurePolicy.DROP);
+        assertTrue(ring.offer(1));
+        assertTrue(ring.offer(2));
+        assertFalse(ring.offer(3));
+        assertEquals(1, ring.getDropped());
+        assertEquals(2, ring.size());
+    }
+
+    @Test
+    public void growPolicySpillsAndDrainsInOrder() {
+        final var ring = new MpscRingBuffer<Integer>(2, MpscRingBuffer.BackpressurePolicy.GROW);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertEquals(3, ring.getSpilled());
+        final List<Integer> drained = new ArrayList<>();
+        assertEquals(5, ring.drain(drained::add));
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void offersAfterASpillStayBehindTheSpilledElements() {
+        final var ring = new MpscRingBuffer<Integer>(2, MpscRingBuffer.BackpressurePolicy.GROW);
+        ring.offer(0);
+        ring.offer(1);
+        ring.offer(2);
+        assertEquals(Integer.valueOf(0), ring.poll());
+        // the ring has a free slot again, but 2 is still waiting in the overflow
+        ring.offer(3);
+        assertEquals(2, ring.getSpilled());
+
+        assertEquals(Integer.valueOf(1), ring.poll());
+        assertEquals(Integer.valueOf(2), ring.poll());
+        assertEquals(Integer.valueOf(3), ring.poll());
+        assertNull(ring.poll());
+
+        // with the overflow empty offers go to the ring again
+        ring.offer(4);
+        assertEquals(2, ring.getSpilled());
+        final List<Integer> drained = new ArrayList<>();
+        ring.drain(drained::add);
+        assertEquals(List.of(4), drained);
+    }
+
+    @Test
+    public void growPolicyKeepsTheOrderOfEveryProducer() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 10_000;
+        final var ring = new MpscRingBuffer<int[]>(8, MpscRingBuffer.BackpressurePolicy.GROW);
+        final var threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.offer(new int[]{producer, i});
+                }
+            });
+            threads[p].start();
+        }
+        final int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            final var element = ring.poll();
+            if (element != null) {
+                assertEquals(next[element[0]]++, element[1]);
+                received++;
+            }
+        }
+        for (final var thread : threads) {
+            thread.join();
+        }
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void concurrentProducersLoseNothing() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 10_000;
+        final var ring = new MpscRingBuffer<Integer>(64, MpscRingBuffer.BackpressurePolicy.BLOCK);
+        final var threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.offer(i);
+                }
+            });
+            threads[p].start();
+        }
+        long sum = 0;
+        int received = 0;
+        while (received < producers * perProducer) {
+            final var element = ring.poll();
+            if (element != null) {
+                sum += element;
+                received++;
+            }
+        }
+        for (final var thread : threads) {
+            thread.join();
+        }
+        assertEquals((long) producers * perProducer * (perProducer - 1) / 2, sum);
+    }
+}
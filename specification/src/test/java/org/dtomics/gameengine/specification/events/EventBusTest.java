@@ -0,0 +1,95 @@
+package org.dtomics.gameengine.specification.events;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventBusTest {
+
+    private static List<String> record(EventBus bus) {
+        final List<String> log = new ArrayList<>();
+        bus.subscribe(EventType.RESIZE, (width, height) -> log.add("resize " + width + "x" + height));
+        bus.subscribe(EventType.CURSOR, (x, y) -> log.add("cursor " + x + "," + y));
+        bus.subscribe(EventType.SCROLL, (x, y) -> log.add("scroll " + x + "," + y));
+        bus.subscribe(EventType.KEY, (key, scancode, action, mods) -> log.add("key " + key));
+        bus.subscribe(EventType.CLOSE, () -> log.add("close"));
+        return log;
+    }
+
+    @Test
+    public void coalescedEventsAreFlushedBeforeTheNextDiscreteEvent() {
+        final var bus = new EventBus();
+        final var log = record(bus);
+        final var queue = new InputEventQueue();
+        queue.offer(InputEvents.resize(100, 100));
+        queue.offer(InputEvents.cursor(1, 1));
+        queue.offer(InputEvents.scroll(0, 1));
+        queue.offer(InputEvents.cursor(2, 2));
+        queue.offer(InputEvents.scroll(0.5, 2));
+        queue.offer(InputEvents.resize(200, 100));
+        queue.offer(InputEvents.key(65, 30, 1, 0));
+        queue.offer(InputEvents.cursor(3, 3));
+        queue.offer(InputEvents.close());
+
+        assertEquals(9, bus.dispatch(queue));
+        assertEquals(List.of(
+                "resize 200x100",
+                "cursor 2.0,2.0",
+                "scroll 0.5,3.0",
+                "key 65",
+                "cursor 3.0,3.0",
+                "close"), log);
+        assertEquals(3, bus.getCoalesced());
+    }
+
+    @Test
+    public void pendingCoalescedEventsAreFlushedAtTheEndOfADispatch() {
+        final var bus = new EventBus();
+        final var log = record(bus);
+        final var queue = new InputEventQueue();
+        queue.offer(InputEvents.scroll(0, 1));
+        bus.dispatch(queue);
+        queue.offer(InputEvents.scroll(0, 1));
+        bus.dispatch(queue);
+
+        assertEquals(List.of("scroll 0.0,1.0", "scroll 0.0,1.0"), log);
+        assertEquals(0, bus.getCoalesced());
+    }
+
+    @Test
+    public void unsubscribedHandlersAreNotCalled() {
+        final var bus = new EventBus();
+        final List<Integer> keys = new ArrayList<>();
+        final EventType.KeyHandler handler = (key, scancode, action, mods) -> keys.add(key);
+        bus.subscribe(EventType.KEY, handler);
+        final var queue = new InputEventQueue();
+        queue.offer(InputEvents.key(1, 0, 1, 0));
+        bus.dispatch(queue);
+
+        assertTrue(bus.unsubscribe(EventType.KEY, handler));
+        assertFalse(bus.unsubscribe(EventType.KEY, handler));
+        queue.offer(InputEvents.key(2, 0, 1, 0));
+        bus.dispatch(queue);
+        assertEquals(List.of(1), keys);
+    }
+
+    @Test
+    public void customEventsArePublishedToTheirOwnSubscribers() {
+        final var bus = new EventBus();
+        final EventType<Consumer<String>> spawned = EventType.custom("spawned");
+        final EventType<Consumer<String>> despawned = EventType.custom("despawned");
+        final List<String> log = new ArrayList<>();
+        bus.subscribe(spawned, name -> log.add("first " + name));
+        bus.subscribe(spawned, name -> log.add("second " + name));
+        bus.subscribe(despawned, name -> log.add("despawned " + name));
+
+        bus.publish(spawned, "orc");
+        assertEquals(List.of("first orc", "second orc"), log);
+    }
+}
@@ -0,0 +1,89 @@
+package org.dtomics.gameengine.specification.events;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InputEventsTest {
+    private static final double DELTA = 0.0;
+
+    @Test
+    public void keyRoundTrips() {
+        final long event = InputEvents.key(348, 0x7FFF, 2, 0xFF);
+        assertEquals(InputEvents.KEY, InputEvents.type(event));
+        assertEquals(348, InputEvents.key(event));
+        assertEquals(0x7FFF, InputEvents.scancode(event));
+        assertEquals(2, InputEvents.action(event));
+        assertEquals(0xFF, InputEvents.mods(event));
+    }
+
+    @Test
+    public void unknownKeyStaysNegative() {
+        final long event = InputEvents.key(-1, 57, 1, 0);
+        assertEquals(InputEvents.KEY, InputEvents.type(event));
+        assertEquals(-1, InputEvents.key(event));
+        assertEquals(57, InputEvents.scancode(event));
+        assertEquals(1, InputEvents.action(event));
+    }
+
+    @Test
+    public void mouseButtonRoundTrips() {
+        final long event = InputEvents.mouseButton(7, 0, 0x3);
+        assertEquals(InputEvents.MOUSE_BUTTON, InputEvents.type(event));
+        assertEquals(7, InputEvents.button(event));
+        assertEquals(0, InputEvents.action(event));
+        assertEquals(0x3, InputEvents.mods(event));
+    }
+
+    @Test
+    public void cursorAndScrollKeepSignAndFraction() {
+        final long cursor = InputEvents.cursor(1920.5, -0.25);
+        assertEquals(InputEvents.CURSOR, InputEvents.type(cursor));
+        assertEquals(1920.5, InputEvents.x(cursor), DELTA);
+        assertEquals(-0.25, InputEvents.y(cursor), DELTA);
+
+        final long scroll = InputEvents.scroll(-3, 1.75);
+        assertEquals(InputEvents.SCROLL, InputEvents.type(scroll));
+        assertEquals(-3, InputEvents.x(scroll), DELTA);
+        assertEquals(1.75, InputEvents.y(scroll), DELTA);
+    }
+
+    @Test
+    public void cursorIsRoundedToTheFixedPointStep() {
+        final long event = InputEvents.cursor(0.1, -1000.3);
+        assertEquals(0.1, InputEvents.x(event), 1.0 / 512);
+        assertEquals(-1000.3, InputEvents.y(event), 1.0 / 512);
+    }
+
+    @Test
+    public void resizeAndCloseRoundTrip() {
+        final long resize = InputEvents.resize(7680, 4320);
+        assertEquals(InputEvents.RESIZE, InputEvents.type(resize));
+        assertEquals(7680, InputEvents.width(resize));
+        assertEquals(4320, InputEvents.height(resize));
+
+        assertEquals(InputEvents.CLOSE, InputEvents.type(InputEvents.close()));
+    }
+
+    @Test
+    public void queueDrainsInOrderAndDropsWhenFull() {
+        final var queue = new InputEventQueue(3);
+        assertEquals(4, queue.getCapacity());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i < 4, queue.offer(InputEvents.resize(i, i)));
+        }
+        assertEquals(1, queue.getDropped());
+
+        final List<Integer> widths = new ArrayList<>();
+        assertEquals(4, queue.drain(event -> widths.add(InputEvents.width(event))));
+        assertEquals(List.of(0, 1, 2, 3), widths);
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.offer(InputEvents.close()));
+        assertFalse(queue.isEmpty());
+    }
+}
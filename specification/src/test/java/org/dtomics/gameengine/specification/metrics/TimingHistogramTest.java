@@ -0,0 +1,106 @@
+package org.dtomics.gameengine.specification.metrics;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimingHistogramTest {
+
+    /**
+     * @return upper bound of the bucket the value falls into
+     */
+    private static long boundOf(long value) {
+        final var histogram = new TimingHistogram();
+        histogram.record(value);
+        histogram.record(Long.MAX_VALUE);
+        return histogram.getPercentile(50);
+    }
+
+    @Test
+    public void smallValuesHaveExactBuckets() {
+        for (long value = 0; value < 64; value++) {
+            assertEquals(value, boundOf(value));
+        }
+    }
+
+    @Test
+    public void bucketsWidenWithEveryPowerOfTwo() {
+        assertEquals(65, boundOf(64));
+        assertEquals(65, boundOf(65));
+        assertEquals(67, boundOf(66));
+        assertEquals(131, boundOf(128));
+        assertEquals(131, boundOf(131));
+        assertEquals(135, boundOf(132));
+        assertEquals((1L << 20) + (1L << 15) - 1, boundOf(1L << 20));
+        assertEquals((1L << 20) + (2L << 15) - 1, boundOf((1L << 20) + (1L << 15)));
+    }
+
+    @Test
+    public void boundsStayWithinTheRelativeError() {
+        final var random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            final long value = random.nextLong() >>> (1 + random.nextInt(63));
+            final long bound = boundOf(value);
+            assertTrue(bound >= value);
+            assertTrue(bound - value <= value / 32);
+        }
+    }
+
+    @Test
+    public void percentilesAndMean() {
+        final var histogram = new TimingHistogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean(), 0.0);
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(50, histogram.getPercentile(50));
+        assertEquals(99, histogram.getPercentile(99));
+        // the bucket of 100 ends at 101, percentiles never exceed the max
+        assertEquals(100, histogram.getPercentile(100));
+
+        final var snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.count());
+        assertEquals(50, snapshot.p50());
+    }
+
+    @Test
+    public void topBucketHoldsTheLargestValue() {
+        final var histogram = new TimingHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE - 1);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void negativeTimingsCountAsZero() {
+        final var histogram = new TimingHistogram();
+        histogram.record(-5);
+        assertEquals(0, histogram.getPercentile(100));
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void resetForgetsEverySample() {
+        final var histogram = new TimingHistogram();
+        histogram.record(1_000_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0.0, histogram.getMean(), 0.0);
+
+        histogram.record(10);
+        assertEquals(10, histogram.getPercentile(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentileIsBounded() {
+        new TimingHistogram().getPercentile(100.5);
+    }
+}
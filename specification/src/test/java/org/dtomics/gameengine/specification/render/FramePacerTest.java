@@ -0,0 +1,33 @@
+package org.dtomics.gameengine.specification.render;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FramePacerTest {
+    private static final long FRAME_TIME = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void catchUpCountsEveryLateFrameOnce() throws InterruptedException {
+        final var pacer = new FramePacer(FRAME_TIME, FramePacer.MissedFramePolicy.CATCH_UP);
+        pacer.awaitNextFrame();
+        Thread.sleep(55);
+        for (int i = 0; i < 6; i++) {
+            pacer.awaitNextFrame();
+        }
+        // 4 frames late, 5 if the sleep overshot; counting the backlog again on every catch up frame gives 10 or more
+        assertTrue("missed " + pacer.getMissedFrames(), pacer.getMissedFrames() >= 4 && pacer.getMissedFrames() <= 5);
+    }
+
+    @Test
+    public void uncappedNeverMisses() {
+        final var pacer = FramePacer.uncapped();
+        for (int i = 0; i < 3; i++) {
+            pacer.awaitNextFrame();
+        }
+        assertEquals(0, pacer.getMissedFrames());
+    }
+}
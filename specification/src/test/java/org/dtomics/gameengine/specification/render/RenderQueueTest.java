@@ -0,0 +1,98 @@
+package org.dtomics.gameengine.specification.render;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RenderQueueTest {
+
+    @Test
+    public void opaqueFrontToBackThenTranslucentBackToFront() {
+        final List<String> rendered = new ArrayList<>();
+        final var queue = new RenderQueue();
+        queue.add(w -> rendered.add("glass far"), SortKey.translucent(0, 1, 0, 900));
+        queue.add(w -> rendered.add("wall far"), SortKey.opaque(0, 1, 0, 800));
+        queue.add(w -> rendered.add("glass near"), SortKey.translucent(0, 1, 0, 10));
+        queue.add(w -> rendered.add("wall near"), SortKey.opaque(0, 1, 0, 5));
+        queue.add(w -> rendered.add("hud"), SortKey.opaque(1, 0, 0, 0));
+
+        queue.execute(null);
+
+        assertEquals(List.of("wall near", "wall far", "glass far", "glass near", "hud"), rendered);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void opaqueDrawsAreGroupedByShaderBeforeDepth() {
+        final var near = SortKey.opaque(0, 2, 0, 0);
+        final var far = SortKey.opaque(0, 1, 0, SortKey.MAX_DEPTH);
+        assertTrue(Long.compareUnsigned(far, near) < 0);
+        assertFalse(SortKey.isTranslucent(near));
+        assertTrue(SortKey.isTranslucent(SortKey.translucent(0, 0, 0, 0)));
+    }
+
+    @Test
+    public void fieldsAreMaskedToTheirWidth() {
+        assertEquals(SortKey.opaque(0, 0, 0, 0), SortKey.opaque(0, 1 << SortKey.SHADER_BITS, 0, 0));
+        assertEquals(15, SortKey.layerOf(SortKey.opaque(15, 0, 0, 0)));
+        assertEquals(0, SortKey.layerOf(SortKey.opaque(16, 0, 0, 0)));
+    }
+
+    @Test
+    public void depthIsClampedToTheKeyRange() {
+        assertEquals(0, SortKey.depth(0.05f, 0.1f, 100f));
+        assertEquals(0, SortKey.depth(Float.NaN, 0.1f, 100f));
+        assertEquals(SortKey.MAX_DEPTH, SortKey.depth(500f, 0.1f, 100f));
+        assertTrue(SortKey.depth(10f, 0.1f, 100f) < SortKey.depth(20f, 0.1f, 100f));
+    }
+
+    @Test
+    public void radixSortMatchesUnsignedSort() {
+        final var random = new Random(7);
+        final var queue = new RenderQueue();
+        final var expected = new long[5000];
+        for (int i = 0; i < expected.length; i++) {
+            // mixes keys with the top bit set, which sort last as unsigned values
+            expected[i] = random.nextLong();
+            queue.add(w -> {
+            }, expected[i]);
+        }
+        queue.sort();
+
+        final var sorted = new long[expected.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = queue.keyAt(i);
+        }
+        final var unsigned = Arrays.stream(expected).boxed()
+                .sorted(Long::compareUnsigned)
+                .mapToLong(Long::longValue)
+                .toArray();
+        assertArrayEquals(unsigned, sorted);
+    }
+
+    @Test
+    public void equalKeysKeepSubmissionOrder() {
+        final var queue = new RenderQueue();
+        final Renderable first = w -> {
+        };
+        final Renderable second = w -> {
+        };
+        final Renderable other = w -> {
+        };
+        queue.add(first, 3);
+        queue.add(other, 1L << 40);
+        queue.add(second, 3);
+        queue.sort();
+        assertEquals(first, queue.renderableAt(0));
+        assertEquals(second, queue.renderableAt(1));
+        assertEquals(other, queue.renderableAt(2));
+    }
+}
@@ -0,0 +1,148 @@
+package org.dtomics.gameengine.specification.systems;
+
+import org.dtomics.gameengine.specification.components.Component;
+import org.dtomics.gameengine.specification.components.World;
+import org.dtomics.gameengine.specification.window.Window;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class SystemSchedulerTest {
+
+    private abstract static class Data implements Component {
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void update(Window window) {
+        }
+    }
+
+    private static final class Position extends Data {
+    }
+
+    private static final class Velocity extends Data {
+    }
+
+    private static final class Health extends Data {
+    }
+
+    private static final class Recorded implements EntitySystem {
+        private final String name;
+        private final Set<Class<? extends Component>> reads;
+        private final Set<Class<? extends Component>> writes;
+        private final List<String> log;
+
+        private Recorded(String name, Set<Class<? extends Component>> reads, Set<Class<? extends Component>> writes, List<String> log) {
+            this.name = name;
+            this.reads = reads;
+            this.writes = writes;
+            this.log = log;
+        }
+
+        @Override
+        public void update(World world, Window window) {
+            log.add(name);
+        }
+
+        @Override
+        public Set<Class<? extends Component>> reads() {
+            return reads;
+        }
+
+        @Override
+        public Set<Class<? extends Component>> writes() {
+            return writes;
+        }
+    }
+
+    private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+
+    private EntitySystem system(String name, Set<Class<? extends Component>> reads, Set<Class<? extends Component>> writes) {
+        return new Recorded(name, reads, writes, log);
+    }
+
+    @Test
+    public void readersShareAStage() {
+        final var scheduler = new SystemScheduler();
+        final var first = system("first", Set.of(Position.class), Set.of());
+        final var second = system("second", Set.of(Position.class, Velocity.class), Set.of());
+        scheduler.add(first);
+        scheduler.add(second);
+
+        assertEquals(1, scheduler.stageCount());
+        assertEquals(0, scheduler.stageOf(first));
+        assertEquals(0, scheduler.stageOf(second));
+    }
+
+    @Test
+    public void writerAndReaderAreSplit() {
+        final var scheduler = new SystemScheduler();
+        final var writer = system("writer", Set.of(), Set.of(Position.class));
+        final var reader = system("reader", Set.of(Position.class), Set.of());
+        final var lateWriter = system("late writer", Set.of(), Set.of(Position.class));
+        scheduler.add(writer);
+        scheduler.add(reader);
+        scheduler.add(lateWriter);
+
+        assertEquals(3, scheduler.stageCount());
+        assertEquals(0, scheduler.stageOf(writer));
+        assertEquals(1, scheduler.stageOf(reader));
+        assertEquals(2, scheduler.stageOf(lateWriter));
+    }
+
+    @Test
+    public void writersOfTheSameTypeAreSplit() {
+        final var scheduler = new SystemScheduler();
+        final var first = system("first", Set.of(), Set.of(Health.class));
+        final var second = system("second", Set.of(), Set.of(Health.class));
+        final var unrelated = system("unrelated", Set.of(), Set.of(Velocity.class));
+        scheduler.add(first);
+        scheduler.add(second);
+        scheduler.add(unrelated);
+
+        assertEquals(2, scheduler.stageCount());
+        assertEquals(0, scheduler.stageOf(first));
+        assertEquals(1, scheduler.stageOf(second));
+        assertEquals(0, scheduler.stageOf(unrelated));
+        assertEquals(-1, scheduler.stageOf(system("missing", Set.of(), Set.of())));
+    }
+
+    @Test
+    public void conflictingSystemsRunInRegistrationOrder() {
+        final var scheduler = new SystemScheduler();
+        scheduler.add(system("move", Set.of(Velocity.class), Set.of(Position.class)));
+        scheduler.add(system("collide", Set.of(Position.class), Set.of(Health.class)));
+        scheduler.add(system("die", Set.of(Health.class), Set.of()));
+
+        for (int i = 0; i < 10; i++) {
+            log.clear();
+            scheduler.run(new World(), null);
+            assertEquals(List.of("move", "collide", "die"), log);
+        }
+    }
+
+    @Test
+    public void addingAfterRunRebuildsTheStages() {
+        final var scheduler = new SystemScheduler();
+        final var reader = system("reader", Set.of(Position.class), Set.of());
+        scheduler.add(reader);
+        scheduler.run(new World(), null);
+        assertEquals(1, scheduler.stageCount());
+
+        final var writer = system("writer", Set.of(), Set.of(Position.class));
+        scheduler.add(writer);
+        assertEquals(2, scheduler.stageCount());
+        assertEquals(1, scheduler.stageOf(writer));
+
+        log.clear();
+        scheduler.run(new World(), null);
+        assertEquals(List.of("reader", "writer"), log);
+    }
+}
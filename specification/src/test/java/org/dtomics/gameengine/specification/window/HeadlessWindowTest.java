@@ -0,0 +1,107 @@
+package org.dtomics.gameengine.specification.window;
+
+import org.dtomics.gameengine.specification.events.EventType;
+import org.dtomics.gameengine.specification.events.InputEvents;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HeadlessWindowTest {
+
+    @Test
+    public void eventsPostedFromManyThreadsArriveOnceAndInOrderPerThread() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 500;
+        final var window = new HeadlessWindow();
+        window.create();
+        final int[] next = new int[producers];
+        final boolean[] inOrder = {true};
+        window.on(EventType.KEY, (key, scancode, action, mods) -> {
+            inOrder[0] &= next[mods] == key;
+            next[mods] = key + 1;
+        });
+
+        final var start = new CountDownLatch(1);
+        final var threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    window.post(InputEvents.key(i, 0, 1, producer));
+                }
+            });
+            threads[p].start();
+        }
+        start.countDown();
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        int received = 0;
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            window.waitEvents(Duration.ofMillis(10));
+            received += window.dispatchEvents();
+        }
+        for (final var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * perProducer, received);
+        assertEquals(0, window.events().getDropped());
+        assertTrue(inOrder[0]);
+        final int[] expected = new int[producers];
+        Arrays.fill(expected, perProducer);
+        assertArrayEquals(expected, next);
+    }
+
+    @Test
+    public void postWakesUpAWaitingThread() throws InterruptedException {
+        final var window = new HeadlessWindow();
+        window.create();
+        final var poster = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            }
+            window.post(InputEvents.close());
+        });
+        poster.start();
+
+        final long start = System.nanoTime();
+        window.waitEvents(Duration.ofSeconds(10));
+        poster.join();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(1, window.dispatchEvents());
+    }
+
+    @Test
+    public void resizePublishesStateAndQueuesTheEvent() {
+        final var window = new HeadlessWindow();
+        window.create();
+        final int[] size = new int[2];
+        window.on(EventType.RESIZE, (width, height) -> {
+            size[0] = width;
+            size[1] = height;
+        });
+
+        window.resize(800, 600);
+        assertEquals(800, window.state().width());
+        assertEquals(0, window.dispatchEvents());
+
+        window.pollEvents();
+        assertEquals(1, window.dispatchEvents());
+        assertArrayEquals(new int[]{800, 600}, size);
+    }
+}